@@ -0,0 +1,47 @@
+package com.wordscapes.ocr;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayDeque;
+
+/**
+ * Small pool of mutable ARGB bitmaps allocated once at the pool's maximum size.
+ * Smaller requests reuse the same allocation through {@link Bitmap#reconfigure}.
+ */
+public class BitmapPool {
+    private final int maxWidth, maxHeight, maxFree;
+    private final ArrayDeque<Bitmap> free = new ArrayDeque<>();
+
+    public BitmapPool(int maxWidth, int maxHeight, int maxFree) {
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+        this.maxFree = maxFree;
+    }
+
+    public synchronized Bitmap acquire(int width, int height) {
+        Bitmap bitmap = free.poll();
+        if (bitmap == null || bitmap.isRecycled()) {
+            bitmap = Bitmap.createBitmap(Math.max(width, maxWidth), Math.max(height, maxHeight), Bitmap.Config.ARGB_8888);
+        }
+        if (bitmap.getWidth() != width || bitmap.getHeight() != height) {
+            if (bitmap.getAllocationByteCount() >= width * height * 4) {
+                bitmap.reconfigure(width, height, Bitmap.Config.ARGB_8888);
+            } else {
+                bitmap.recycle();
+                bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            }
+        }
+        return bitmap;
+    }
+
+    public synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) return;
+        if (free.size() < maxFree) free.push(bitmap);
+        else bitmap.recycle();
+    }
+
+    /** Recycles pooled bitmaps beyond keep. */
+    public synchronized void trim(int keep) {
+        while (free.size() > keep) free.pollLast().recycle();
+    }
+}
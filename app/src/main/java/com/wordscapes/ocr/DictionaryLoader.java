@@ -0,0 +1,76 @@
+package com.wordscapes.ocr;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.util.Log;
+
+import com.wordscapes.solver.Trie;
+import com.wordscapes.solver.WordFrequency;
+
+import java.io.BufferedReader;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Loads the dictionary from assets: the precompiled words.dawg, mapped and bulk-read
+ * with no parsing. The words.txt it is built from is not packaged in the APK.
+ * words_short.dawg, when bundled, is a small first tier loaded ahead of the rest.
+ */
+public class DictionaryLoader {
+
+    static final String BINARY_ASSET = "words.dawg";
+    static final String SHORT_ASSET = "words_short.dawg";
+    static final String FREQUENCY_ASSET = "word_freq.txt";
+
+    public static Trie load(Context context) {
+        long start = System.nanoTime();
+        Trie trie;
+        try {
+            trie = mapBinary(context, BINARY_ASSET);
+        } catch (IOException e) {
+            Log.e("OCR", "Dictionary load failed", e);
+            trie = new Trie();
+        }
+        Log.d("OCR", "Dictionary loaded in " + (System.nanoTime() - start) / 1000000 + " ms");
+        return trie;
+    }
+
+    /** The short-word tier, or null when it is not bundled. */
+    public static Trie loadShort(Context context) {
+        long start = System.nanoTime();
+        try {
+            Trie trie = mapBinary(context, SHORT_ASSET);
+            Log.d("OCR", "Short dictionary loaded in " + (System.nanoTime() - start) / 1000000 + " ms");
+            return trie;
+        } catch (IOException e) {
+            Log.w("OCR", SHORT_ASSET + " unavailable");
+            return null;
+        }
+    }
+
+    /** Word ranks from word_freq.txt (most common first), or null when the asset is not bundled. */
+    public static WordFrequency loadFrequency(Context context) {
+        long start = System.nanoTime();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(context.getAssets().open(FREQUENCY_ASSET)))) {
+            WordFrequency frequency = WordFrequency.read(reader);
+            Log.d("OCR", "Word frequency: " + frequency.size() + " words in " + (System.nanoTime() - start) / 1000000 + " ms");
+            return frequency;
+        } catch (IOException e) {
+            Log.w("OCR", FREQUENCY_ASSET + " unavailable, keeping solver order");
+            return null;
+        }
+    }
+
+    static Trie mapBinary(Context context, String asset) throws IOException {
+        // words.dawg is stored uncompressed (noCompress in build.gradle), so it can be mapped in place
+        try (AssetFileDescriptor fd = context.getAssets().openFd(asset);
+             FileInputStream in = fd.createInputStream();
+             FileChannel channel = in.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getDeclaredLength());
+            return Trie.read(buffer);
+        }
+    }
+}
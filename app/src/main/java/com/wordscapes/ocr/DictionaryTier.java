@@ -0,0 +1,29 @@
+package com.wordscapes.ocr;
+
+import com.wordscapes.solver.SolveCache;
+import com.wordscapes.solver.Trie;
+import com.wordscapes.solver.WordScheduler;
+import com.wordscapes.solver.WordSolver;
+
+/**
+ * One published dictionary: the frozen trie and everything built from it. Final
+ * fields only, so it is safe to hand to the solve thread once published. The short
+ * tier has no solve cache, so its partial results never outlive it.
+ */
+final class DictionaryTier {
+    final String name;
+    final Trie trie;
+    final WordSolver solver;
+    final SolveCache cache;
+    final WordScheduler scheduler;
+    final boolean complete;
+
+    DictionaryTier(String name, Trie trie, WordSolver solver, SolveCache cache, WordScheduler scheduler, boolean complete) {
+        this.name = name;
+        this.trie = trie;
+        this.solver = solver;
+        this.cache = cache;
+        this.scheduler = scheduler;
+        this.complete = complete;
+    }
+}
@@ -0,0 +1,76 @@
+package com.wordscapes.ocr;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.util.Log;
+
+import com.wordscapes.vision.GlyphClassifier;
+import com.wordscapes.vision.LumaFrame;
+import com.wordscapes.vision.RingGlyphs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+
+/**
+ * Template storage for {@link GlyphClassifier}: learned templates from app storage
+ * when present, otherwise A-Z rendered in the system bold sans as unconfirmed seeds.
+ * Called on the io thread, into a classifier nothing else holds yet.
+ */
+public class GlyphTemplates {
+    private static final String FILE_NAME = "glyph_templates.bin";
+    // Letters are drawn at a quarter of the canvas so they fall in the classifier's size band
+    private static final int RENDER_SIZE = 192;
+
+    public static void load(Context context, GlyphClassifier classifier) {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        if (file.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (classifier.readFrom(in)) return;
+            } catch (Exception e) {
+                Log.w("OCR", "Glyph templates discarded", e);
+            }
+        }
+        seed(classifier);
+    }
+
+    public static void save(Context context, GlyphClassifier classifier) {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            classifier.writeTo(out);
+        } catch (Exception e) {
+            Log.w("OCR", "Glyph templates not saved", e);
+        }
+    }
+
+    static void seed(GlyphClassifier classifier) {
+        Bitmap bitmap = Bitmap.createBitmap(RENDER_SIZE, RENDER_SIZE, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setTypeface(Typeface.DEFAULT_BOLD);
+        paint.setTextSize(RENDER_SIZE * 0.25f);
+        paint.setTextAlign(Paint.Align.CENTER);
+        paint.setColor(Color.BLACK);
+
+        int[] argb = new int[RENDER_SIZE * RENDER_SIZE];
+        LumaFrame frame = new LumaFrame(RENDER_SIZE, RENDER_SIZE);
+        for (char c = 'A'; c <= 'Z'; c++) {
+            canvas.drawColor(Color.WHITE);
+            canvas.drawText(String.valueOf(c), RENDER_SIZE / 2f, RENDER_SIZE * 0.6f, paint);
+            bitmap.getPixels(argb, 0, RENDER_SIZE, 0, 0, RENDER_SIZE, RENDER_SIZE);
+            for (int i = 0; i < argb.length; i++) frame.pixels[i] = Color.green(argb[i]) < 128 ? 0 : (byte) 255;
+
+            RingGlyphs ring = classifier.segment(frame, 0, 0, 1);
+            if (ring.size() == 1) classifier.seed(c, ring.features(0));
+        }
+        bitmap.recycle();
+    }
+}
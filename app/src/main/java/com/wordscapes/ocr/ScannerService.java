@@ -18,7 +18,9 @@ import android.media.Image;
 import android.media.ImageReader;
 import android.media.projection.MediaProjection;
 import android.media.projection.MediaProjectionManager;
+import android.os.Debug;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.os.IBinder;
 import android.os.Looper;
 import android.os.Vibrator;
@@ -38,11 +40,44 @@ import com.google.mlkit.vision.text.Text;
 import com.google.mlkit.vision.text.TextRecognition;
 import com.google.mlkit.vision.text.TextRecognizer;
 import com.google.mlkit.vision.text.latin.TextRecognizerOptions;
+import com.wordscapes.metrics.ScanMetrics;
+import com.wordscapes.metrics.ScanMetrics.Stage;
+import com.wordscapes.replay.ScanRecord;
+import com.wordscapes.solver.Hypothesis;
+import com.wordscapes.solver.SolveCache;
+import com.wordscapes.solver.Trie;
+import com.wordscapes.solver.WordScheduler;
+import com.wordscapes.solver.WordSolver;
+import com.wordscapes.swipe.SwipeCalibrator;
+import com.wordscapes.swipe.SwipePaths;
+import com.wordscapes.swipe.SwipeProfile;
+import com.wordscapes.swipe.WheelGeometry;
+import com.wordscapes.vision.CrosswordGrid;
+import com.wordscapes.vision.CrosswordReader;
+import com.wordscapes.vision.FrameHash;
+import com.wordscapes.vision.Glyph;
+import com.wordscapes.vision.GlyphClassifier;
+import com.wordscapes.vision.LetterExtractor;
+import com.wordscapes.vision.LumaFrame;
+import com.wordscapes.vision.LumaFramePool;
+import com.wordscapes.vision.OcrElement;
+import com.wordscapes.vision.PreprocessConfig;
+import com.wordscapes.vision.PreprocessSweep;
+import com.wordscapes.vision.Preprocessor;
+import com.wordscapes.vision.RecognitionCache;
+import com.wordscapes.vision.RingGlyphs;
+import com.wordscapes.vision.WheelReading;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 public class ScannerService extends Service {
 
@@ -54,34 +89,209 @@ public class ScannerService extends Service {
     private WindowManager wm;
     private FrameLayout ringOverlay;
     private TextView statusText;
+    private TextView metricsText;
     private GradientDrawable ringShape;
     private MediaProjectionManager projectionManager;
     private MediaProjection mediaProjection;
     private VirtualDisplay virtualDisplay;
-    private ImageReader imageReader;
+    private volatile ImageReader imageReader;
     private Vibrator vibrator;
     private int screenWidth, screenHeight, screenDensity;
     private TextRecognizer recognizer;
-    private Trie trie;
+    // Published once per tier (short, then full); readiness can be awaited or checked
+    private volatile DictionaryTier dictionary;
+    private final CompletableFuture<Void> firstTierReady = new CompletableFuture<>();
+    private final CompletableFuture<Void> dictionaryReady = new CompletableFuture<>();
+    // Set by the solve thread when a save is queued, cleared by the io thread as it runs
+    private volatile boolean solveCacheSavePending;
+
+    // Capture scratch and glyph state, capture thread only; sized for the full ring and reused on every tap
+    private final ByteBuffer ringPixels = ByteBuffer.allocateDirect(RING_SIZE * RING_SIZE * 4);
+    private final BitmapPool ringBitmaps = new BitmapPool(RING_SIZE, RING_SIZE, 2);
+    private final LumaFramePool lumaFrames = new LumaFramePool(RING_SIZE, RING_SIZE, 2);
+    private final Preprocessor preprocessor = new Preprocessor();
+    private final PreprocessSweep preprocessSweep = new PreprocessSweep();
+    // Replaced once the stored or seeded templates are loaded on the io thread
+    private GlyphClassifier glyphClassifier = new GlyphClassifier();
+    private final RecognitionCache recognitionCache = new RecognitionCache(RECOGNITION_CACHE_SIZE);
+    private WheelReading lastReading;
+
+    // --- PIPELINE ---
+    // Frame copies, hashing, preprocessing and classification run on the capture thread,
+    // ML Kit on its own executor, solving on the solve thread and swiping in SwiperService's
+    // queue; the main thread only hands off and updates the UI. Loading and file writes go
+    // to the io thread. Each scan bumps scanGeneration; stale results are dropped.
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private HandlerThread captureThread, solveThread, ioThread;
+    private Handler captureHandler, solveHandler, ioHandler;
+    // Path scratch, solve thread only: x, y per letter of the longest possible word
+    private final float[] pathBuffer = new float[2 * 32];
+    private volatile int scanGeneration;
+
+    // Auto scan state: ticks, hashes and the pending frame belong to the capture thread
+    private final Runnable autoScanTick = this::autoScanTick;
+    private volatile boolean autoScan;
+    private volatile Rect autoScanCrop;
+    private boolean hasScannedHash;
+    private long lastScannedHash, pendingHash;
+    private Image pendingFrame;
+    // Generation whose OCR is running, or -1; a stale completion cannot clear a newer scan's
+    private volatile int ocrGeneration = -1;
+    private volatile boolean swipeActive;
+
+    // Swipe calibration (main thread)
+    private SwiperService configuredSwiper;
+    private SwipeCalibrator swipeCalibrator;
+    private volatile long boardHash;
+    private long strokeStartHash;
+
+    // Level tracking (main thread): the crossword of the level whose letters are on the wheel
+    private final CrosswordReader crosswordReader = new CrosswordReader(GRID_MIN_LUMA);
+    private final LumaFrame scannedBoard = new LumaFrame(2, 2);
+    private final LumaFrame sampledBoard = new LumaFrame(2, 2);
+    private final Runnable gridCheck = this::gridCheck;
+    private CrosswordGrid grid;
+    private boolean gridTrusted;
+    private String gridLetters;
+
+    // Scan tracing; scanId is -1 between scans and whenever tracing is off
+    private final ScanMetrics scanMetrics = new ScanMetrics(TRACE_HISTORY, TRACE_SCANS);
+    private volatile long scanId = -1;
+    private long scanStart;
+
+    // Session recording for off-device replay; record is the current scan's, created on the main
+    // thread and handed to the capture thread with its frame
+    private ScanRecord record;
+    private File recordingDir;
+    private int recordCount;
+
+    // Warm start: each stage completes with its milliseconds since onCreate
+    private long createStart;
+    private final CompletableFuture<Long> recognizerReady = new CompletableFuture<>();
+    private final CompletableFuture<Long> firstFrameReady = new CompletableFuture<>();
+    // The frame a tap waits for: the first one, then the first after capture resumes
+    private CompletableFuture<Long> frameReady = firstFrameReady;
+    private boolean scanOnFirstFrame;
+
+    // Memory tiers (main thread). Evicting the full dictionary falls back to the short tier.
+    enum Residency { ACTIVE, IDLE, LEAN, MINIMAL }
+    private Residency residency = Residency.ACTIVE, targetResidency = Residency.ACTIVE;
+    private final Runnable stepDown = this::stepDown;
+    private boolean capturePaused, fullTierEvicted;
+    private volatile DictionaryTier shortTier;
 
     private static final String CHANNEL_ID = "OCR_Service_Channel";
     private static final int RING_SIZE = 720; 
+    private static final int MIN_WORD_LENGTH = 3;
+
+    // BITMAP: RGBA ring copy into a pooled Bitmap. LUMA_NV21: one-pass grayscale
+    // conversion straight into a pooled NV21 array that ML Kit reads in place.
+    enum CaptureMode { BITMAP, LUMA_NV21 }
+    private static final CaptureMode CAPTURE_MODE = CaptureMode.LUMA_NV21;
+
+    // Applied to LUMA_NV21 frames before OCR. With PREPROCESS_SWEEP on, a tap runs every
+    // preset on the same frame and logs the latency/agreement table instead of solving.
+    private static final PreprocessConfig PREPROCESS = PreprocessConfig.NONE;
+    private static final boolean PREPROCESS_SWEEP = false;
+
+    // Template classifier tried before ML Kit on LUMA_NV21 frames; OCR runs only when a
+    // glyph is unsure, and its reading then refines the templates
+    private static final boolean USE_GLYPH_CLASSIFIER = true;
+    private static final PreprocessConfig CLASSIFIER_PREPROCESS = PreprocessConfig.BINARY_THIRD;
+    private static final float CLASSIFIER_MIN_CONFIDENCE = 0.75f;
+    private static final float CLASSIFIER_MIN_MARGIN = 0.05f;
+    private static final int MAX_WHEEL_LETTERS = 9;
+    private static final boolean SNAP_TO_RING = true;
+
+    // LUMA_NV21 frames whose ring pixels were seen before skip recognition; a shuffled
+    // wheel is re-read by matching its glyphs against the previous reading's
+    private static final boolean RECOGNITION_CACHE = true;
+    private static final int RECOGNITION_CACHE_SIZE = 32;
+    private static final boolean SHUFFLE_RELOCATE = true;
+    private static final float RELOCATE_MIN_SCORE = 0.8f;
+    // Same letter across rings scores 0.80-0.99, different letters top out near 0.73
+    private static final float RELOCATE_MIN_MARGIN = 0.1f;
+
+    // Long-press on the ring toggles auto scan
+    private static final long LONG_PRESS_MS = 600;
+    private static final long AUTO_SCAN_INTERVAL_MS = 250;
+    private static final long AUTO_SCAN_BACKOFF_MS = 1000;
+    private static final int AUTO_SCAN_CHANGE_BITS = 10;
+    private static final int AUTO_SCAN_STABLE_BITS = 3;
+    private static final WordSolver.Engine SOLVER_ENGINE = WordSolver.Engine.DAWG;
+    private static final int SOLVE_CACHE_SIZE = 256;
+    private static final boolean PERSIST_SOLVE_CACHE = true;
+    // Misses within this window share one rewrite of the cache file
+    private static final long SOLVE_CACHE_SAVE_DELAY_MS = 30_000;
+    private static final boolean SHORT_DICTIONARY_FIRST = true;
+
+    // Unsure letters keep look-alike candidates; every likely reading is solved in one traversal
+    private static final boolean MULTI_HYPOTHESIS = true;
+    private static final String[] OCR_CONFUSIONS = {"IL", "OQ", "CG"};
+    private static final float OCR_SURE_CONFIDENCE = 0.8f;
+    private static final float CONFUSION_CONFIDENCE = 0.6f;
+    private static final float HYPOTHESIS_MIN_CONFIDENCE = 0.5f;
+
+    // Swipe timing is calibrated once per device against the board, then reused
+    private static final boolean SWIPE_CALIBRATION = true;
+    private static final boolean RECALIBRATE_SWIPES = false;
+    private static final int CALIBRATION_TRIALS = 4;
+    private static final long ACCEPT_SETTLE_MS = 400;
+    private static final int ACCEPT_CHANGE_BITS = 6;
+
+    // Level-aware scheduling: only lengths with open slots, common words first, stop when full
+    private static final boolean LEVEL_AWARE = true;
+    private static final int GRID_MIN_LUMA = 200;
+    private static final int GRID_SAMPLE_STEP = 4;
+    private static final long GRID_CHECK_MS = 300;
+
+    // Per-stage latency of recent scans, optionally shown under the status and dumped to files/
+    private static final boolean TRACE_SCANS = true;
+    private static final boolean TRACE_OVERLAY = false;
+    private static final int TRACE_HISTORY = 64;
+    private static final int TRACE_DUMP_EVERY = 16;
+
+    // Each scan's ring crop, OCR output, letters, words and paths go to
+    // recordings/session_<time>/ under the external files dir, for ReplayRunner
+    private static final boolean RECORD_SESSIONS = false;
+
+    // The ML Kit model, the first projected frame and the dictionary are readied in parallel
+    // at launch so the first tap costs what later ones do; timings go to files/cold_start.csv
+    private static final boolean WARM_START = true;
+    private static final int WARMUP_FRAME_SIZE = 64;
+
+    // onTrimMemory releases idle resources in tiers: capture buffers, then the recognizer,
+    // then the full dictionary. The next tap brings them back; a busy scan defers the trim.
+    private static final boolean MEMORY_TIERS = true;
+    private static final long TRIM_RETRY_MS = 1000;
 
     private static class DetectedLetter {
         String text;
         Rect box;
         float centerX, centerY;
-        boolean used = false;
+        float confidence = 1f;
+        // Possible readings, best first, with confidence relative to the best
+        char[] candidates;
+        float[] candidateConfidences = {1f};
         DetectedLetter(String text, Rect box) {
             this.text = text;
             this.box = box;
             this.centerX = box.exactCenterX();
             this.centerY = box.exactCenterY();
+            this.candidates = new char[] { text.charAt(0) };
+        }
+        DetectedLetter(String text, Rect box, float confidence) {
+            this(text, box);
+            this.confidence = confidence;
+        }
+        boolean isAmbiguous() {
+            return candidates.length > 1;
         }
     }
 
     @Override
     public void onCreate() {
+        createStart = System.nanoTime();
         super.onCreate();
         createNotificationChannel();
         startForeground(1, new Notification.Builder(this, CHANNEL_ID)
@@ -95,9 +305,25 @@ public class ScannerService extends Service {
             projectionManager = (MediaProjectionManager) getSystemService(Context.MEDIA_PROJECTION_SERVICE);
             vibrator = (Vibrator) getSystemService(Context.VIBRATOR_SERVICE);
             
+            captureThread = new HandlerThread("capture", android.os.Process.THREAD_PRIORITY_DISPLAY);
+            captureThread.start();
+            captureHandler = new Handler(captureThread.getLooper());
+            solveThread = new HandlerThread("solve");
+            solveThread.start();
+            solveHandler = new Handler(solveThread.getLooper());
+            ioThread = new HandlerThread("io", android.os.Process.THREAD_PRIORITY_BACKGROUND);
+            ioThread.start();
+            ioHandler = new Handler(ioThread.getLooper());
+
             recognizer = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
-            trie = new Trie();
-            new Thread(() -> trie.loadDictionary(this)).start();
+            warmStart();
+            if (USE_GLYPH_CLASSIFIER) {
+                ioHandler.post(() -> {
+                    GlyphClassifier loaded = new GlyphClassifier();
+                    GlyphTemplates.load(this, loaded);
+                    captureHandler.post(() -> glyphClassifier = loaded);
+                });
+            }
 
             DisplayMetrics metrics = new DisplayMetrics();
             wm.getDefaultDisplay().getRealMetrics(metrics);
@@ -116,6 +342,168 @@ public class ScannerService extends Service {
         }
     }
 
+    // --- WARM START ---
+
+    // Starts the dictionary load and model warm-up; the first frame is awaited in initMediaProjection.
+    // The ring shows the first stage still pending until all of them are done.
+    private void warmStart() {
+        CompletableFuture<Long> firstTier = firstTierReady.thenApply(t -> sinceCreateMs());
+        CompletableFuture<Long> fullTier = dictionaryReady.thenApply(t -> sinceCreateMs());
+        ioHandler.post(this::loadDictionary);
+        if (!WARM_START) return;
+
+        warmRecognizer(() -> recognizerReady.complete(sinceCreateMs()));
+        for (CompletableFuture<?> stage : new CompletableFuture<?>[] { recognizerReady, firstTier }) {
+            stage.thenRun(() -> mainHandler.post(this::refreshStartupStatus));
+        }
+        CompletableFuture.allOf(recognizerReady, firstFrameReady, firstTier, fullTier).thenRun(() -> ioHandler.post(() ->
+                writeColdStart(recognizerReady.join(), firstFrameReady.join(), firstTier.join(), fullTier.join())));
+    }
+
+    // A blank frame is enough to load and initialize the model
+    private void warmRecognizer(Runnable onReady) {
+        recognizer().process(toInputImage(new LumaFrame(WARMUP_FRAME_SIZE, WARMUP_FRAME_SIZE)))
+                .addOnCompleteListener(t -> onReady.run());
+    }
+
+    // Created again on first use after a trim dropped it
+    private TextRecognizer recognizer() {
+        if (recognizer == null) recognizer = TextRecognition.getClient(TextRecognizerOptions.DEFAULT_OPTIONS);
+        return recognizer;
+    }
+
+    // Completes ready with the arrival of the next frame, which stays queued in the reader
+    // so the tap waiting on it acquires it without another round trip
+    private void awaitFrame(CompletableFuture<Long> ready) {
+        imageReader.setOnImageAvailableListener(reader -> {
+            reader.setOnImageAvailableListener(null, null);
+            ready.complete(sinceCreateMs());
+        }, captureHandler);
+        ready.thenRun(() -> mainHandler.post(this::refreshStartupStatus));
+    }
+
+    private long sinceCreateMs() {
+        return (System.nanoTime() - createStart) / 1000000;
+    }
+
+    // Moves the ring past a start-up label once its stage is done; scan statuses are left alone
+    private void refreshStartupStatus() {
+        if (statusText == null) return;
+        String shown = statusText.getText().toString();
+        if (shown.equals("LOADING") || shown.equals("WARMING") || shown.equals("WAITING FRAME")) {
+            statusText.setText(idleStatus());
+        }
+    }
+
+    // io thread: one row per launch
+    private void writeColdStart(long modelMs, long frameMs, long firstTierMs, long fullTierMs) {
+        long readyMs = Math.max(modelMs, Math.max(frameMs, firstTierMs));
+        Log.d("OCR", "Cold start (ms): model " + modelMs + ", first frame " + frameMs + ", first tier " + firstTierMs
+                + ", full dictionary " + fullTierMs + ", ready " + readyMs);
+        File file = new File(getFilesDir(), "cold_start.csv");
+        boolean header = !file.exists();
+        try (Writer csv = new FileWriter(file, true)) {
+            if (header) csv.write("time,model_ms,first_frame_ms,first_tier_ms,full_dictionary_ms,ready_ms\n");
+            csv.write(System.currentTimeMillis() + "," + modelMs + "," + frameMs + "," + firstTierMs + ","
+                    + fullTierMs + "," + readyMs + "\n");
+        } catch (IOException e) {
+            Log.w("OCR", "Cold start timings not written", e);
+        }
+    }
+
+    // --- DICTIONARY ---
+
+    // io thread: the short tier first so early taps can solve, then the full dictionary
+    private void loadDictionary() {
+        long start = System.nanoTime();
+        if (SHORT_DICTIONARY_FIRST) {
+            Trie shortTrie = DictionaryLoader.loadShort(this);
+            if (shortTrie != null) {
+                shortTier = new DictionaryTier("short", shortTrie, WordSolver.create(SOLVER_ENGINE, shortTrie),
+                        null, new WordScheduler(null), false);
+                publish(shortTier, start);
+            }
+        }
+        loadFullTier(start);
+    }
+
+    // io thread; also remaps the full tier after a trim evicted it
+    private void loadFullTier(long start) {
+        Trie trie = DictionaryLoader.load(this);
+        Log.d("OCR", "Dictionary: " + trie.describeFootprint());
+        WordSolver engine = WordSolver.create(SOLVER_ENGINE, trie);
+        Log.d("OCR", "Solver " + SOLVER_ENGINE + ": " + engine.memoryFootprint() / 1024 + " KB");
+        WordScheduler scheduler = new WordScheduler(LEVEL_AWARE ? DictionaryLoader.loadFrequency(this) : null);
+        publish(new DictionaryTier("full", trie, engine, createSolveCache(trie), scheduler, true), start);
+    }
+
+    private void publish(DictionaryTier tier, long loadStart) {
+        dictionary = tier;
+        Log.d("OCR", "Dictionary tier " + tier.name + " ready " + (System.nanoTime() - loadStart) / 1000000 + " ms after start");
+        firstTierReady.complete(null);
+        if (tier.complete) {
+            dictionaryReady.complete(null);
+            // A trim to MINIMAL while this tier was loading could not evict it yet
+            mainHandler.post(() -> {
+                if (residency == Residency.MINIMAL) evictFullTier();
+            });
+        }
+    }
+
+    private SolveCache createSolveCache(Trie trie) {
+        // Results depend on the dictionary and on the word-length filter
+        SolveCache cache = new SolveCache(SOLVE_CACHE_SIZE, trie.fingerprint() * 31 + MIN_WORD_LENGTH);
+        if (PERSIST_SOLVE_CACHE) {
+            try {
+                cache.load(solveCacheFile());
+            } catch (Exception e) {
+                Log.w("OCR", "Solve cache discarded", e);
+            }
+        }
+        return cache;
+    }
+
+    private File solveCacheFile() {
+        return new File(getFilesDir(), "solve_cache.bin");
+    }
+
+    private List<String> solveWords(DictionaryTier tier, String letters) {
+        SolveCache cache = tier.cache;
+        List<String> words = cache != null ? cache.get(letters) : null;
+        if (words != null) return words;
+
+        words = tier.solver.solve(letters, MIN_WORD_LENGTH, letters.length(), Integer.MAX_VALUE);
+        if (cache != null) {
+            cache.put(letters, words);
+            if (PERSIST_SOLVE_CACHE && !solveCacheSavePending) {
+                solveCacheSavePending = true;
+                ioHandler.postDelayed(() -> {
+                    solveCacheSavePending = false;
+                    saveSolveCache(cache);
+                }, SOLVE_CACHE_SAVE_DELAY_MS);
+            }
+            Log.d("OCR", cache.describeStats());
+        }
+        return words;
+    }
+
+    // io thread
+    private void saveSolveCache(SolveCache cache) {
+        if (!cache.isDirty()) return;
+        try {
+            cache.save(solveCacheFile());
+        } catch (Exception e) {
+            Log.w("OCR", "Solve cache not saved", e);
+        }
+    }
+
+    // Hidden, trimmed or destroyed: write now what the delayed save would have
+    private void flushSolveCache() {
+        DictionaryTier tier = dictionary;
+        if (!PERSIST_SOLVE_CACHE || ioHandler == null || tier == null || tier.cache == null) return;
+        ioHandler.post(() -> saveSolveCache(tier.cache));
+    }
+
     private void initMediaProjection() {
         // If we already have it, don't recreate
         if (mediaProjection != null) return;
@@ -128,16 +516,28 @@ public class ScannerService extends Service {
                     screenWidth, screenHeight, screenDensity,
                     DisplayManager.VIRTUAL_DISPLAY_FLAG_AUTO_MIRROR,
                     imageReader.getSurface(), null, null);
+            awaitFrame(firstFrameReady);
                     
             // Feedback
-            new Handler(Looper.getMainLooper()).post(() -> 
+            mainHandler.post(() -> 
                 Toast.makeText(this, "Projection Initialized!", Toast.LENGTH_SHORT).show());
         }
     }
 
     private void setupImageReader() {
-        if (imageReader != null) imageReader.close();
+        closeReader(imageReader);
         imageReader = ImageReader.newInstance(screenWidth, screenHeight, PixelFormat.RGBA_8888, 2);
+        // A replaced reader must also replace the display's surface, or no frame ever reaches it
+        if (virtualDisplay != null && !capturePaused) virtualDisplay.setSurface(imageReader.getSurface());
+    }
+
+    // Closed on the capture thread, after any frame it is still reading from this reader
+    private void closeReader(ImageReader reader) {
+        if (reader == null) return;
+        captureHandler.post(() -> {
+            dropPendingFrame();
+            reader.close();
+        });
     }
 
     private void showRing() {
@@ -149,13 +549,23 @@ public class ScannerService extends Service {
         ringOverlay.setBackground(ringShape);
 
         statusText = new TextView(this);
-        statusText.setText("READY");
+        statusText.setText(idleStatus());
         statusText.setTextColor(Color.WHITE);
         statusText.setTextSize(20);
         statusText.setTypeface(null, android.graphics.Typeface.BOLD);
         statusText.setGravity(Gravity.CENTER);
         ringOverlay.addView(statusText);
 
+        if (TRACE_SCANS && TRACE_OVERLAY) {
+            metricsText = new TextView(this);
+            metricsText.setTextColor(Color.WHITE);
+            metricsText.setTextSize(11);
+            metricsText.setGravity(Gravity.CENTER);
+            ringOverlay.addView(metricsText, new FrameLayout.LayoutParams(
+                    FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT,
+                    Gravity.BOTTOM | Gravity.CENTER_HORIZONTAL));
+        }
+
         WindowManager.LayoutParams params = new WindowManager.LayoutParams(
                 RING_SIZE, RING_SIZE,
                 WindowManager.LayoutParams.TYPE_APPLICATION_OVERLAY,
@@ -198,13 +608,17 @@ public class ScannerService extends Service {
                             return true;
 
                         case MotionEvent.ACTION_UP:
-                            ringShape.setColor(Color.parseColor("#3300FF00"));
+                            ringShape.setColor(idleRingColor());
                             ringOverlay.setBackground(ringShape);
-                            if (isClick) {
+                            if (isClick && event.getEventTime() - event.getDownTime() >= LONG_PRESS_MS) {
+                                performVibration();
+                                toggleAutoScan();
+                            } else if (isClick) {
                                 performVibration();
                                 captureAndSolve();
                             } else {
-                                statusText.setText("READY");
+                                autoScanCrop = ringCrop();
+                                statusText.setText(idleStatus());
                             }
                             return true;
                     }
@@ -220,7 +634,99 @@ public class ScannerService extends Service {
         try { if (vibrator != null) vibrator.vibrate(VibrationEffect.createOneShot(50, VibrationEffect.DEFAULT_AMPLITUDE)); } catch (Exception e) {}
     }
 
+    // --- AUTO SCAN ---
+    // Samples the ring at a bounded rate and scans only when its hash moved away from the
+    // last scanned frame and then held still (level change or shuffle animation finished).
+    // A tick without a new frame means the screen is static, so a pending change has settled.
+
+    private void toggleAutoScan() {
+        autoScan = !autoScan;
+        if (autoScan) {
+            restoreResidency();
+        } else if (residency != Residency.ACTIVE) {
+            // Stepped down while auto scan kept the display running
+            pauseCapture();
+            reportFootprint();
+        }
+        autoScanCrop = ringCrop();
+        captureHandler.removeCallbacks(autoScanTick);
+        captureHandler.post(this::dropPendingFrame);
+        if (autoScan) captureHandler.post(autoScanTick);
+        ringShape.setColor(idleRingColor());
+        ringOverlay.setBackground(ringShape);
+        statusText.setText(idleStatus());
+    }
+
+    private String idleStatus() {
+        if (!firstTierReady.isDone()) return "LOADING";
+        if (WARM_START && !recognizerReady.isDone()) return "WARMING";
+        if (mediaProjection != null && !frameReady.isDone()) return "WAITING FRAME";
+        return autoScan ? "AUTO" : "READY";
+    }
+
+    private int idleRingColor() {
+        return Color.parseColor(autoScan ? "#330088FF" : "#3300FF00");
+    }
+
+    // Capture thread
+    private void autoScanTick() {
+        if (!autoScan) return;
+        ImageReader reader = imageReader;
+        if (reader == null || isOcrInFlight() || swipeActive) {
+            // Swipe trails and OCR in flight would only produce false changes
+            dropPendingFrame();
+            captureHandler.postDelayed(autoScanTick, AUTO_SCAN_BACKOFF_MS);
+            return;
+        }
+
+        try {
+            Image image = reader.acquireLatestImage();
+            if (image == null) {
+                if (pendingFrame != null) {
+                    Image settled = pendingFrame;
+                    pendingFrame = null;
+                    lastScannedHash = pendingHash;
+                    hasScannedHash = true;
+                    mainHandler.post(() -> scanImage(settled, 0));
+                }
+            } else {
+                long hash = ringHash(image, autoScanCrop);
+                boolean changed = !hasScannedHash || FrameHash.distance(hash, lastScannedHash) > AUTO_SCAN_CHANGE_BITS;
+                if (!changed) {
+                    image.close();
+                    dropPendingFrame();
+                } else if (pendingFrame != null && FrameHash.distance(hash, pendingHash) <= AUTO_SCAN_STABLE_BITS) {
+                    dropPendingFrame();
+                    lastScannedHash = hash;
+                    hasScannedHash = true;
+                    mainHandler.post(() -> scanImage(image, 0));
+                } else {
+                    dropPendingFrame();
+                    pendingFrame = image;
+                    pendingHash = hash;
+                }
+            }
+        } catch (Exception e) {
+            Log.w("OCR", "Auto scan sample failed", e);
+            dropPendingFrame();
+        }
+        captureHandler.postDelayed(autoScanTick, AUTO_SCAN_INTERVAL_MS);
+    }
+
+    // Capture thread
+    private void dropPendingFrame() {
+        if (pendingFrame != null) {
+            pendingFrame.close();
+            pendingFrame = null;
+        }
+    }
+
     private void captureAndSolve() {
+        // A new scan supersedes whatever is still being swiped
+        if (SwiperService.instance != null) SwiperService.instance.cancelQueue();
+
+        restoreResidency();
+
         // Try to init if missing
         if (mediaProjection == null) initMediaProjection();
 
@@ -229,123 +735,886 @@ public class ScannerService extends Service {
             return;
         }
 
+        long acquireStart = System.nanoTime();
+        Image image;
         try {
-            Image image = imageReader.acquireLatestImage();
+            image = imageReader.acquireLatestImage();
             if (image == null) image = imageReader.acquireNextImage();
+        } catch (Exception e) {
+            statusText.setText("CAP FAIL");
+            setupImageReader();
+            return;
+        }
 
-            if (image == null) {
-                statusText.setText("NO IMAGE");
-                new Handler(Looper.getMainLooper()).postDelayed(this::captureAndSolve, 150);
-                return;
+        if (image == null && !frameReady.isDone()) {
+            // Projection just started or resumed: scan when its first frame lands rather than polling
+            statusText.setText("WAITING FRAME");
+            if (!scanOnFirstFrame) {
+                scanOnFirstFrame = true;
+                frameReady.thenRun(() -> mainHandler.post(() -> {
+                    scanOnFirstFrame = false;
+                    captureAndSolve();
+                }));
             }
+            return;
+        }
+        if (image == null) {
+            statusText.setText("NO IMAGE");
+            mainHandler.postDelayed(this::captureAndSolve, 150);
+            return;
+        }
+        scanImage(image, System.nanoTime() - acquireStart);
+    }
 
-            statusText.setText("READING...");
-            Image.Plane[] planes = image.getPlanes();
-            ByteBuffer buffer = planes[0].getBuffer();
-            int pixelStride = planes[0].getPixelStride();
-            int rowStride = planes[0].getRowStride();
-            int rowPadding = rowStride - pixelStride * screenWidth;
-            
-            Bitmap bitmap = Bitmap.createBitmap(screenWidth + rowPadding / pixelStride, screenHeight, Bitmap.Config.ARGB_8888);
-            bitmap.copyPixelsFromBuffer(buffer);
+    // Screen rectangle under the ring overlay, clipped to the display
+    private Rect ringCrop() {
+        WindowManager.LayoutParams lp = (WindowManager.LayoutParams) ringOverlay.getLayoutParams();
+        int cropX = Math.max(0, lp.x);
+        int cropY = Math.max(0, lp.y);
+        return new Rect(cropX, cropY, cropX + Math.min(screenWidth - cropX, RING_SIZE), cropY + Math.min(screenHeight - cropY, RING_SIZE));
+    }
+
+    private long ringHash(Image image, Rect crop) {
+        Image.Plane plane = image.getPlanes()[0];
+        return FrameHash.ofRgba(plane.getBuffer(), plane.getRowStride(), plane.getPixelStride(),
+                crop.left, crop.top, crop.width(), crop.height());
+    }
+
+    // Main thread: starts the scan and hands the frame to the capture thread; always closes the image
+    private void scanImage(Image image, long acquireNanos) {
+        beginScan(acquireNanos);
+        statusText.setText("READING...");
+        long scan = scanId;
+        int generation = scanGeneration;
+        ScanRecord rec = record;
+        Rect crop = ringCrop();
+        Rect board = boardCrop();
+        captureHandler.post(() -> readRing(image, crop, board, generation, scan, rec));
+    }
+
+    // Capture thread: runs the classifier or prepares OCR; letters go back to the main thread
+    private void readRing(Image image, Rect crop, Rect board, int generation, long scan, ScanRecord rec) {
+        if (generation != scanGeneration) {
             image.close();
+            return;
+        }
+        try {
+            int cropX = crop.left;
+            int cropY = crop.top;
+            int cropW = crop.width();
+            int cropH = crop.height();
+            lastScannedHash = ringHash(image, crop);
+            if (SWIPE_CALIBRATION) boardHash = ringHash(image, board);
+            if (LEVEL_AWARE) sampleBoard(image, board, scannedBoard);
+            hasScannedHash = true;
 
-            WindowManager.LayoutParams lp = (WindowManager.LayoutParams) ringOverlay.getLayoutParams();
-            int cropX = Math.max(0, lp.x);
-            int cropY = Math.max(0, lp.y);
-            int cropW = Math.min(screenWidth - cropX, RING_SIZE);
-            int cropH = Math.min(screenHeight - cropY, RING_SIZE);
-            
-            Bitmap cropped = Bitmap.createBitmap(bitmap, cropX, cropY, cropW, cropH);
+            long captureStart = System.nanoTime();
+            if (CAPTURE_MODE == CaptureMode.LUMA_NV21) {
+                // NV21 needs even dimensions
+                int w = cropW & ~1, h = cropH & ~1;
+                LumaFrame frame;
+                try {
+                    Image.Plane plane = image.getPlanes()[0];
+                    frame = lumaFrames.acquire(w, h);
+                    LumaFrame.fromRgba(plane.getBuffer(), plane.getRowStride(), plane.getPixelStride(), cropX, cropY, w, h, frame);
+                    if (rec != null) {
+                        rec.frame = new LumaFrame(w, h);
+                        System.arraycopy(frame.pixels, 0, rec.frame.pixels, 0, w * h);
+                    }
+                } finally {
+                    image.close();
+                }
+                scanMetrics.since(scan, Stage.COPY, captureStart);
+                if (PREPROCESS_SWEEP) {
+                    sweepPreprocessing(frame, 0, null);
+                    return;
+                }
+                // Same ring pixels as a previous scan (e.g. after a swipe): reuse its letters
+                long contentHash = FrameHash.content(frame);
+                WheelReading cached = RECOGNITION_CACHE ? recognitionCache.get(contentHash) : null;
+                if (cached != null) {
+                    lumaFrames.release(frame);
+                    lastReading = cached;
+                    if (rec != null) rec.source = "cache";
+                    Log.d("OCR", recognitionCache.describeStats());
+                    deliverLetters(generation, lettersOf(cached));
+                    return;
+                }
+
+                RingGlyphs ring = null;
+                boolean canRelocate = SHUFFLE_RELOCATE && lastReading != null && lastReading.hasGlyphs();
+                if ((USE_GLYPH_CLASSIFIER && glyphClassifier.hasTemplates()) || canRelocate) {
+                    long binaryStart = System.nanoTime();
+                    LumaFrame binary = preprocessor.apply(frame, CLASSIFIER_PREPROCESS, lumaFrames.acquire(w, h));
+                    scanMetrics.since(scan, Stage.PREPROCESS, binaryStart);
+                    long classifyStart = System.nanoTime();
+                    ring = glyphClassifier.segment(binary, cropX, cropY, CLASSIFIER_PREPROCESS.downscale);
+                    lumaFrames.release(binary);
 
-            InputImage inputImage = InputImage.fromBitmap(cropped, 0);
-            recognizer.process(inputImage)
-                    .addOnSuccessListener(visionText -> processTextResults(visionText, cropX, cropY))
-                    .addOnFailureListener(e -> statusText.setText("OCR FAIL"));
+                    // A shuffle keeps the letters in the same slots: match glyphs, skip OCR
+                    WheelReading moved = canRelocate ? lastReading.relocate(ring, RELOCATE_MIN_SCORE, RELOCATE_MIN_MARGIN,
+                            USE_GLYPH_CLASSIFIER ? glyphClassifier : null) : null;
+                    List<DetectedLetter> letters = moved != null ? lettersOf(moved)
+                            : USE_GLYPH_CLASSIFIER ? confidentLetters(glyphClassifier.classify(ring), ring) : null;
+                    scanMetrics.since(scan, Stage.CLASSIFY, classifyStart);
+                    Log.d("OCR", "Glyphs: " + (System.nanoTime() - classifyStart) / 1000 + " us, "
+                            + (moved != null ? "relocated" : letters != null ? "classified" : "fallback to OCR"));
+                    if (letters != null) {
+                        lumaFrames.release(frame);
+                        if (rec != null) rec.source = moved != null ? "relocate" : "classifier";
+                        rememberReading(contentHash, moved != null ? moved : readingOf(letters, ring), false);
+                        deliverLetters(generation, letters);
+                        return;
+                    }
+                }
+
+                LumaFrame input = frame;
+                if (!PREPROCESS.isIdentity()) {
+                    long preprocessStart = System.nanoTime();
+                    input = preprocessor.apply(frame, PREPROCESS, lumaFrames.acquire(w / PREPROCESS.downscale, h / PREPROCESS.downscale));
+                    lumaFrames.release(frame);
+                    scanMetrics.since(scan, Stage.PREPROCESS, preprocessStart);
+                }
+                LumaFrame ocrFrame = input;
+                RingGlyphs ocrRing = ring;
+                InputImage inputImage = toInputImage(ocrFrame);
+                mainHandler.post(() -> recognize(inputImage, cropX, cropY, PREPROCESS.downscale, captureStart,
+                        generation, scan, rec,
+                        letters -> {
+                            if (letters.isEmpty()) return;
+                            if (ocrRing != null) learnGlyphs(letters, ocrRing);
+                            rememberReading(contentHash, readingOf(letters, ocrRing), true);
+                        },
+                        () -> lumaFrames.release(ocrFrame)));
+            } else {
+                Bitmap cropped;
+                try {
+                    cropped = copyRing(image, cropX, cropY, cropW, cropH);
+                } finally {
+                    image.close();
+                }
+                scanMetrics.since(scan, Stage.COPY, captureStart);
+                InputImage inputImage = InputImage.fromBitmap(cropped, 0);
+                mainHandler.post(() -> recognize(inputImage, cropX, cropY, 1, captureStart, generation, scan, rec,
+                        null, () -> ringBitmaps.release(cropped)));
+            }
 
         } catch (Exception e) {
-            statusText.setText("CAP FAIL");
-            setupImageReader(); 
+            Log.w("OCR", "Ring frame unreadable", e);
+            mainHandler.post(() -> {
+                if (generation != scanGeneration) return;
+                statusText.setText("CAP FAIL");
+                endScan(scan);
+                if (!capturePaused) setupImageReader();
+            });
         }
     }
 
-    private void processTextResults(Text visionText, int offsetX, int offsetY) {
-        List<DetectedLetter> letters = new ArrayList<>();
-        StringBuilder rawString = new StringBuilder();
+    // Capture thread
+    private void deliverLetters(int generation, List<DetectedLetter> letters) {
+        mainHandler.post(() -> {
+            if (generation == scanGeneration) processLetters(letters);
+        });
+    }
+
+    // Main thread. The frame behind inputImage is only returned to its pool once ML Kit is
+    // done with it; onLetters runs on the capture thread, which owns the glyph state.
+    private void recognize(InputImage inputImage, int cropX, int cropY, int scale, long captureStart,
+                           int generation, long scan, ScanRecord rec,
+                           Consumer<List<DetectedLetter>> onLetters, Runnable release) {
+        if (generation != scanGeneration) {
+            release.run();
+            return;
+        }
+        long recognizeStart = System.nanoTime();
+        ocrGeneration = generation;
+        recognizer().process(inputImage)
+                .addOnSuccessListener(visionText -> {
+                    if (generation != scanGeneration) return;
+                    scanMetrics.since(scan, Stage.RECOGNIZE, recognizeStart);
+                    long extractStart = System.nanoTime();
+                    List<OcrElement> elements = ocrElements(visionText);
+                    if (rec != null) rec.setOcr("mlkit", elements, cropX, cropY, scale);
+                    List<DetectedLetter> letters = extractLetters(elements, cropX, cropY, scale);
+                    scanMetrics.since(scan, Stage.EXTRACT, extractStart);
+                    if (onLetters != null) captureHandler.post(() -> onLetters.accept(letters));
+                    processLetters(letters);
+                })
+                .addOnFailureListener(e -> {
+                    if (generation != scanGeneration) return;
+                    statusText.setText("OCR FAIL");
+                    endScan(scan);
+                })
+                .addOnCompleteListener(t -> {
+                    if (ocrGeneration == generation) ocrGeneration = -1;
+                    release.run();
+                    Log.d("OCR", CAPTURE_MODE + ": capture " + (recognizeStart - captureStart) / 1000 + " us, recognize "
+                            + (System.nanoTime() - recognizeStart) / 1000000 + " ms");
+                });
+    }
 
+    private boolean isOcrInFlight() {
+        return ocrGeneration == scanGeneration;
+    }
+
+    private static InputImage toInputImage(LumaFrame frame) {
+        frame.fillNeutralChroma();
+        return InputImage.fromByteBuffer(ByteBuffer.wrap(frame.pixels, 0, frame.nv21Length()),
+                frame.width, frame.height, 0, InputImage.IMAGE_FORMAT_NV21);
+    }
+
+    // Capture thread: runs OCR on one frame with every preset in turn and logs latency and
+    // agreement with the first
+    private void sweepPreprocessing(LumaFrame frame, int index, String reference) {
+        if (index == PreprocessConfig.PRESETS.length) {
+            lumaFrames.release(frame);
+            Log.d("OCR", "Preprocess sweep:\n" + preprocessSweep.describe());
+            mainHandler.post(() -> statusText.setText(idleStatus()));
+            return;
+        }
+        PreprocessConfig config = PreprocessConfig.PRESETS[index];
+        String progress = "SWEEP " + (index + 1) + "/" + PreprocessConfig.PRESETS.length;
+        LumaFrame out = preprocessor.apply(frame, config, lumaFrames.acquire(frame.width, frame.height));
+        InputImage input = toInputImage(out);
+        mainHandler.post(() -> {
+            statusText.setText(progress);
+            long start = System.nanoTime();
+            recognizer().process(input).addOnCompleteListener(captureHandler::post, task -> {
+                long latency = System.nanoTime() - start;
+                lumaFrames.release(out);
+                String letters = task.isSuccessful() ? letterString(extractLetters(ocrElements(task.getResult()), 0, 0, 1)) : "";
+                String ref = reference != null ? reference : letters;
+                preprocessSweep.record(config, latency, letters, ref);
+                sweepPreprocessing(frame, index + 1, ref);
+            });
+        });
+    }
+
+    // Copies only the ring's rows out of the frame into a pooled bitmap; no full-frame copy
+    private Bitmap copyRing(Image image, int cropX, int cropY, int cropW, int cropH) {
+        Image.Plane plane = image.getPlanes()[0];
+        ByteBuffer frame = plane.getBuffer();
+        int pixelStride = plane.getPixelStride();
+        int rowStride = plane.getRowStride();
+        int rowBytes = cropW * pixelStride;
+
+        ringPixels.clear();
+        for (int y = 0; y < cropH; y++) {
+            int start = (cropY + y) * rowStride + cropX * pixelStride;
+            frame.limit(start + rowBytes).position(start);
+            ringPixels.put(frame);
+        }
+        ringPixels.flip();
+
+        Bitmap bitmap = ringBitmaps.acquire(cropW, cropH);
+        bitmap.copyPixelsFromBuffer(ringPixels);
+        return bitmap;
+    }
+
+    // Raw ML Kit elements, boxes still relative to the recognized image
+    private static List<OcrElement> ocrElements(Text visionText) {
+        List<OcrElement> elements = new ArrayList<>();
         for (Text.TextBlock block : visionText.getTextBlocks()) {
             for (Text.Line line : block.getLines()) {
                 for (Text.Element element : line.getElements()) {
-                    String txt = element.getText().toUpperCase();
-                    if (txt.matches("[A-Z]")) {
-                        Rect box = element.getBoundingBox();
-                        if (box != null) {
-                            box.offset(offsetX, offsetY);
-                            letters.add(new DetectedLetter(txt, box));
-                            rawString.append(txt);
-                        }
+                    Rect box = element.getBoundingBox();
+                    if (box != null) {
+                        elements.add(new OcrElement(element.getText(), box.left, box.top, box.right, box.bottom,
+                                element.getConfidence()));
                     }
                 }
             }
         }
+        return elements;
+    }
+
+    // OCR boxes are in the (possibly downscaled) crop; map them back to screen coordinates
+    private static List<DetectedLetter> extractLetters(List<OcrElement> elements, int offsetX, int offsetY, int scale) {
+        List<DetectedLetter> letters = new ArrayList<>();
+        for (OcrElement e : LetterExtractor.extract(elements, offsetX, offsetY, scale)) {
+            DetectedLetter letter = new DetectedLetter(e.text, new Rect(e.left, e.top, e.right, e.bottom), e.confidence);
+            letters.add(withConfusions(letter));
+        }
+        return letters;
+    }
+
+    // Letters ML Kit is known to mix up keep their look-alike as a weaker candidate,
+    // but only when ML Kit itself was unsure of the element
+    private static DetectedLetter withConfusions(DetectedLetter letter) {
+        if (!MULTI_HYPOTHESIS || letter.confidence >= OCR_SURE_CONFIDENCE) return letter;
+        char c = letter.text.charAt(0);
+        for (String pair : OCR_CONFUSIONS) {
+            int i = pair.indexOf(c);
+            if (i >= 0) {
+                letter.candidates = new char[] { c, pair.charAt(1 - i) };
+                letter.candidateConfidences = new float[] { 1f, CONFUSION_CONFIDENCE };
+                break;
+            }
+        }
+        return letter;
+    }
+
+    // Classifier result as board letters, or null if any glyph is too unsure to skip OCR or
+    // matched a seed ML Kit never confirmed. With multi-hypothesis solving a near tie keeps
+    // every close template as a candidate.
+    private List<DetectedLetter> confidentLetters(List<Glyph> glyphs, RingGlyphs ring) {
+        if (glyphs.size() < MIN_WORD_LENGTH || glyphs.size() > MAX_WHEEL_LETTERS) return null;
+        List<DetectedLetter> letters = new ArrayList<>(glyphs.size());
+        for (int i = 0; i < glyphs.size(); i++) {
+            Glyph g = glyphs.get(i);
+            if (g.confidence() < CLASSIFIER_MIN_CONFIDENCE || !glyphClassifier.isConfirmed(g.letter())) return null;
+            if (g.margin() < CLASSIFIER_MIN_MARGIN && !MULTI_HYPOTHESIS) return null;
+            Rect box = new Rect(ring.left(i), ring.top(i), ring.right(i), ring.bottom(i));
+            DetectedLetter letter = new DetectedLetter(String.valueOf(g.letter()), box, g.confidence());
+            if (g.margin() < CLASSIFIER_MIN_MARGIN) {
+                int k = 1;
+                while (k < g.scores.length && g.scores[0] - g.scores[k] < CLASSIFIER_MIN_MARGIN) k++;
+                letter.candidates = new char[k];
+                letter.candidateConfidences = new float[k];
+                for (int j = 0; j < k; j++) {
+                    letter.candidates[j] = g.candidates[j];
+                    letter.candidateConfidences[j] = g.scores[j] / g.scores[0];
+                }
+            }
+            letters.add(letter);
+        }
+        return letters;
+    }
+
+    // Refines templates with letters ML Kit read, matched to blobs by box center
+    private void learnGlyphs(List<DetectedLetter> letters, RingGlyphs ring) {
+        for (DetectedLetter l : letters) {
+            int i = ring.indexAt(l.centerX, l.centerY);
+            if (i >= 0) glyphClassifier.learn(l.text.charAt(0), ring.features(i));
+        }
+    }
+
+    // --- RECOGNITION CACHE ---
+
+    // Only readings ML Kit confirmed are cached: a wrong relocation or classification
+    // would otherwise come back on every re-tap of the same frame
+    private void rememberReading(long contentHash, WheelReading reading, boolean confirmed) {
+        lastReading = reading;
+        if (RECOGNITION_CACHE && confirmed) recognitionCache.put(contentHash, reading);
+    }
+
+    // Glyph grids are attached only when every letter maps to exactly one blob
+    private static WheelReading readingOf(List<DetectedLetter> letters, RingGlyphs ring) {
+        int n = letters.size();
+        char[] chars = new char[n];
+        int[] boxes = new int[4 * n];
+        float[][] glyphs = ring != null ? new float[n][] : null;
+        for (int i = 0; i < n; i++) {
+            DetectedLetter l = letters.get(i);
+            chars[i] = l.text.charAt(0);
+            boxes[4 * i] = l.box.left;
+            boxes[4 * i + 1] = l.box.top;
+            boxes[4 * i + 2] = l.box.right;
+            boxes[4 * i + 3] = l.box.bottom;
+            if (glyphs != null) {
+                int blob = ring.indexAt(l.centerX, l.centerY);
+                if (blob < 0) glyphs = null;
+                else glyphs[i] = ring.features(blob);
+            }
+        }
+        return new WheelReading(chars, boxes, glyphs);
+    }
+
+    private static List<DetectedLetter> lettersOf(WheelReading reading) {
+        List<DetectedLetter> letters = new ArrayList<>(reading.size());
+        for (int i = 0; i < reading.size(); i++) {
+            Rect box = new Rect(reading.left(i), reading.top(i), reading.right(i), reading.bottom(i));
+            letters.add(new DetectedLetter(String.valueOf(reading.letter(i)), box));
+        }
+        return letters;
+    }
+
+    private static String letterString(List<DetectedLetter> letters) {
+        StringBuilder sb = new StringBuilder(letters.size());
+        for (DetectedLetter l : letters) sb.append(l.text);
+        return sb.toString();
+    }
+
+    // Ambiguous slots show all readings, e.g. "CA[TI]S"
+    private static String describeCandidates(List<DetectedLetter> letters) {
+        StringBuilder sb = new StringBuilder(letters.size());
+        for (DetectedLetter l : letters) {
+            if (l.isAmbiguous()) sb.append('[').append(l.candidates).append(']');
+            else sb.append(l.text);
+        }
+        return sb.toString();
+    }
+
+    private static boolean hasAmbiguousLetters(List<DetectedLetter> letters) {
+        for (DetectedLetter l : letters) {
+            if (l.isAmbiguous()) return true;
+        }
+        return false;
+    }
+
+    private void processLetters(List<DetectedLetter> letters) {
+        String rawString = describeCandidates(letters);
+        if (record != null) recordLetters(record, letters);
 
         if (letters.isEmpty()) {
             statusText.setText("EMPTY"); 
-            new Handler(Looper.getMainLooper()).postDelayed(() -> statusText.setText("READY"), 1000);
+            endScan(scanId);
+            mainHandler.postDelayed(() -> statusText.setText(idleStatus()), 1000);
         } else {
-            statusText.setText("FOUND: " + rawString.toString());
-            solveAndSwipe(letters, rawString.toString());
+            statusText.setText("FOUND: " + rawString);
+            String letterString = letterString(letters);
+            if (LEVEL_AWARE && trackLevel(letterString)) {
+                statusText.setText("LEVEL DONE");
+                endScan(scanId);
+                mainHandler.postDelayed(() -> statusText.setText(idleStatus()), 1000);
+                return;
+            }
+            solveAndSwipe(letters, letterString);
         }
     }
 
     private void solveAndSwipe(List<DetectedLetter> boardLetters, String inputString) {
+        long scan = scanId;
         if (SwiperService.instance == null) {
             statusText.setText("NO HAND"); 
+            endScan(scan);
             return;
         }
 
-        new Thread(() -> {
-            List<String> words = trie.solve(inputString);
-            words.removeIf(w -> w.length() < 3);
-            Collections.sort(words, (a, b) -> b.length() - a.length());
+        int generation = scanGeneration;
+        if (!firstTierReady.isDone()) {
+            // Nothing to solve with yet: pick the scan up again once the first tier is published
+            statusText.setText("LOADING DICT");
+            firstTierReady.thenRun(() -> mainHandler.post(() -> {
+                if (generation == scanGeneration) solveAndSwipe(boardLetters, inputString);
+            }));
+            return;
+        }
 
-            if (words.isEmpty()) {
-                 new Handler(Looper.getMainLooper()).post(() -> statusText.setText("NO WORDS"));
-                 return;
+        configureSwiper(SwiperService.instance);
+        int[] openByLength = hasTrustedGrid() ? grid.openSlotsByLength() : null;
+        WheelGeometry wheel = wheelOf(boardLetters);
+        ScanRecord rec = record;
+        swipeActive = true;
+        solveHandler.post(() -> {
+            if (generation != scanGeneration) return;
+            DictionaryTier tier = dictionary;
+            if (!tier.complete) Log.d("OCR", "Solving with the " + tier.name + " tier");
+            SwipePaths paths = null;
+            boolean hypotheses = MULTI_HYPOTHESIS && hasAmbiguousLetters(boardLetters);
+            if (rec != null) {
+                rec.setSolve(tier.name, hypotheses ? ScanRecord.SOLVE_HYPOTHESES : ScanRecord.SOLVE_PLAIN,
+                        HYPOTHESIS_MIN_CONFIDENCE);
             }
+            long solveStart = System.nanoTime();
+            if (hypotheses) {
+                List<Hypothesis> found = solveHypotheses(tier, boardLetters);
+                scanMetrics.since(scan, Stage.SOLVE, solveStart);
+                long scheduleStart = System.nanoTime();
+                List<Hypothesis> scheduled = tier.scheduler.scheduleHypotheses(found, openByLength);
+                scanMetrics.since(scan, Stage.SCHEDULE, scheduleStart);
+                if (rec != null) for (Hypothesis h : found) rec.words.add(h.word);
+                long pathStart = System.nanoTime();
+                paths = new SwipePaths(scheduled.size(), wheel.size());
+                for (Hypothesis h : scheduled) {
+                    if (generation != scanGeneration) return;
+                    int points = wheel.path(h.slots, pathBuffer);
+                    if (points > 0) paths.add(pathBuffer, points);
+                }
+                scanMetrics.since(scan, Stage.PATHS, pathStart);
+            } else {
+                List<String> solved = solveWords(tier, inputString);
+                scanMetrics.since(scan, Stage.SOLVE, solveStart);
+                long scheduleStart = System.nanoTime();
+                List<String> words = tier.scheduler.schedule(solved, openByLength);
+                scanMetrics.since(scan, Stage.SCHEDULE, scheduleStart);
+                if (rec != null) rec.words.addAll(solved);
+                long pathStart = System.nanoTime();
+                paths = new SwipePaths(words.size(), wheel.size());
+                for (String word : words) {
+                    if (generation != scanGeneration) return;
+                    int points = wheel.path(word, pathBuffer);
+                    if (points > 0) paths.add(pathBuffer, points);
+                }
+                scanMetrics.since(scan, Stage.PATHS, pathStart);
+            }
+            if (rec != null) {
+                for (int i = 0; i < paths.size(); i++) rec.paths.add(paths.toArray(i));
+                ioHandler.post(() -> saveRecord(rec));
+            }
+            SwipePaths swipe = paths;
+            mainHandler.post(() -> startSwiping(generation, scan, swipe));
+        });
+    }
+
+    // Main thread: hands a finished solve to the swipe queue unless a newer scan has started
+    private void startSwiping(int generation, long scan, SwipePaths paths) {
+        if (generation != scanGeneration) return;
+        SwiperService swiper = SwiperService.instance;
+        if (paths.isEmpty() || swiper == null) {
+            statusText.setText(paths.isEmpty() ? "NO WORDS" : "NO HAND");
+            swipeActive = false;
+            endScan(scan);
+            mainHandler.postDelayed(() -> statusText.setText(idleStatus()), 2000);
+            return;
+        }
+
+        statusText.setText("SWIPING " + paths.size());
+        // Each word starts when the previous gesture completes; a new scan cancels the rest
+        long swipeStart = System.nanoTime();
+        swiper.enqueue(paths, () -> {
+            swipeActive = false;
+            mainHandler.removeCallbacks(gridCheck);
+            scanMetrics.since(scan, Stage.SWIPE, swipeStart);
+            endScan(scan);
+            statusText.setText(idleStatus());
+        });
+        if (LEVEL_AWARE) mainHandler.postDelayed(gridCheck, GRID_CHECK_MS);
+    }
+
+    // --- SCAN TRACING ---
 
-            new Handler(Looper.getMainLooper()).post(() -> statusText.setText("SWIPING " + words.size()));
+    private void beginScan(long acquireNanos) {
+        cancelInFlight();
+        scanStart = System.nanoTime();
+        scanId = scanMetrics.begin();
+        if (acquireNanos > 0) scanMetrics.record(scanId, Stage.ACQUIRE, acquireNanos);
+        record = RECORD_SESSIONS ? new ScanRecord() : null;
+    }
+
+    // A new scan supersedes the previous one: queued solve work and swipes are dropped
+    private void cancelInFlight() {
+        scanGeneration++;
+        if (solveHandler != null) solveHandler.removeCallbacksAndMessages(null);
+        mainHandler.removeCallbacks(gridCheck);
+        if (SwiperService.instance != null) SwiperService.instance.cancelQueue();
+        swipeActive = false;
+    }
 
-            for (String word : words) {
-                float[][] path = buildPath(word, boardLetters);
-                if (path != null) {
-                    SwiperService.instance.swipe(path);
-                    try { Thread.sleep(450); } catch (Exception e) {}
+    // Main thread; a no-op for a scan that already ended or when tracing is off
+    private void endScan(long scan) {
+        if (scan < 0 || scan != scanId) return;
+        scanId = -1;
+        scanMetrics.since(scan, Stage.TOTAL, scanStart);
+        if (metricsText != null) metricsText.setText(scanMetrics.describeCompact());
+        if ((scan + 1) % TRACE_DUMP_EVERY == 0) ioHandler.post(this::dumpMetrics);
+    }
+
+    private void dumpMetrics() {
+        if (!scanMetrics.isEnabled() || scanMetrics.scanCount() == 0) return;
+        Log.d("OCR", "Scan latency (ms):\n" + scanMetrics.describe());
+        try (Writer csv = new FileWriter(new File(getFilesDir(), "scan_metrics.csv"));
+             Writer json = new FileWriter(new File(getFilesDir(), "scan_metrics.json"))) {
+            scanMetrics.writeCsv(csv);
+            scanMetrics.writeJson(json);
+        } catch (Exception e) {
+            Log.w("OCR", "Scan metrics not written", e);
+        }
+    }
+
+    // --- SESSION RECORDING ---
+
+    // Letters read without OCR are stored as screen-space elements so replay extracts them unchanged;
+    // slot candidates are kept so replay can solve an uncertain wheel the same way
+    private static void recordLetters(ScanRecord rec, List<DetectedLetter> letters) {
+        rec.letters = letterString(letters);
+        for (DetectedLetter l : letters) rec.addSlot(l.candidates, l.candidateConfidences);
+        if (!rec.ocr.isEmpty()) return;
+        List<OcrElement> elements = new ArrayList<>(letters.size());
+        for (DetectedLetter l : letters) {
+            elements.add(new OcrElement(l.text, l.box.left, l.box.top, l.box.right, l.box.bottom, l.confidence));
+        }
+        rec.setOcr(rec.source, elements, 0, 0, 1);
+    }
+
+    // io thread
+    private void saveRecord(ScanRecord rec) {
+        try {
+            if (recordingDir == null) {
+                recordingDir = new File(getExternalFilesDir(null), "recordings/session_" + System.currentTimeMillis());
+                if (!recordingDir.mkdirs()) throw new IOException("Cannot create " + recordingDir);
+            }
+            rec.write(recordingDir, String.format(Locale.ROOT, "scan_%04d", recordCount++));
+        } catch (Exception e) {
+            Log.w("OCR", "Scan record not written", e);
+        }
+    }
+
+    // --- SWIPE GATE (calibration and level tracking) ---
+
+    private void configureSwiper(SwiperService swiper) {
+        if (swiper == configuredSwiper) return;
+        configuredSwiper = swiper;
+        SwipeProfile stored = RECALIBRATE_SWIPES ? null : SwipeProfiles.load(this);
+        swiper.setProfile(stored != null ? stored : SwipeProfile.DEFAULT);
+        Log.d("OCR", "Swipe profile: " + swiper.getProfile());
+        if (stored == null && SWIPE_CALIBRATION) {
+            swipeCalibrator = new SwipeCalibrator(SwipeProfile.LADDER, CALIBRATION_TRIALS);
+        }
+        if (!LEVEL_AWARE && swipeCalibrator == null) return;
+
+        swiper.setStrokeGate(new SwiperService.StrokeGate() {
+            @Override
+            public SwipeProfile profileFor(SwipePaths paths, int path) {
+                // Words of a length whose slots have all been filled are skipped
+                if (hasTrustedGrid() && grid.openSlots(paths.points(path)) == 0) return null;
+                if (!isCalibrating()) return swiper.getProfile();
+                strokeStartHash = sampleBoard();
+                return swipeCalibrator.nextProfile();
+            }
+
+            @Override
+            public void afterStroke(SwipePaths paths, int path, Consumer<Boolean> repeat) {
+                if (!isCalibrating()) {
+                    repeat.accept(false);
+                    return;
                 }
+                mainHandler.postDelayed(() -> {
+                    boolean accepted = FrameHash.distance(strokeStartHash, sampleBoard()) >= ACCEPT_CHANGE_BITS;
+                    swipeCalibrator.record(accepted);
+                    Log.d("OCR", "Swipe " + (accepted ? "accepted" : "ignored") + ": " + swipeCalibrator.describe());
+                    if (swipeCalibrator.isDone()) {
+                        SwipeProfile best = swipeCalibrator.reliableProfile();
+                        SwipeProfiles.save(ScannerService.this, best);
+                        swiper.setProfile(best);
+                    }
+                    repeat.accept(swipeCalibrator.needsRepeat());
+                }, ACCEPT_SETTLE_MS);
             }
-            new Handler(Looper.getMainLooper()).postDelayed(() -> statusText.setText("READY"), 2000);
-        }).start();
+        });
     }
 
-    private float[][] buildPath(String word, List<DetectedLetter> board) {
-        float[][] path = new float[word.length()][2];
-        for (DetectedLetter l : board) l.used = false;
+    private boolean isCalibrating() {
+        return swipeCalibrator != null && !swipeCalibrator.isDone();
+    }
+
+    // Crossword area above the ring, or the ring itself when there is no room above it
+    private Rect boardCrop() {
+        Rect ring = ringCrop();
+        int top = screenHeight / 10;
+        return ring.top - top > RING_SIZE / 4 ? new Rect(0, top, screenWidth, ring.top) : ring;
+    }
 
-        for (int i = 0; i < word.length(); i++) {
-            String charStr = String.valueOf(word.charAt(i));
-            DetectedLetter found = null;
-            for (DetectedLetter l : board) {
-                if (l.text.equals(charStr) && !l.used) {
-                    found = l;
-                    break;
+    private void sampleBoard(Image image, Rect board, LumaFrame out) {
+        Image.Plane plane = image.getPlanes()[0];
+        LumaFrame.fromRgbaSampled(plane.getBuffer(), plane.getRowStride(), plane.getPixelStride(),
+                board.left, board.top, board.width(), board.height(), GRID_SAMPLE_STEP, out);
+    }
+
+    // Reads the newest frame, if any, into the board hash and the grid's fill state.
+    // The display only sends frames when something changes, so no new frame means no change.
+    private long sampleBoard() {
+        if (capturePaused || imageReader == null) return boardHash;
+        Image image = null;
+        try {
+            image = imageReader.acquireLatestImage();
+            if (image != null) {
+                boardHash = ringHash(image, boardCrop());
+                if (grid != null) {
+                    sampleBoard(image, boardCrop(), sampledBoard);
+                    grid.update(sampledBoard);
                 }
             }
-            if (found == null) return null;
-            found.used = true;
-            path[i][0] = found.centerX;
-            path[i][1] = found.centerY;
+        } catch (Exception e) {
+            Log.w("OCR", "Board frame unavailable", e);
+        } finally {
+            if (image != null) image.close();
+        }
+        return boardHash;
+    }
+
+    // New wheel letters mean a new level: find its grid while still empty. Returns true when the level is done.
+    private boolean trackLevel(String letters) {
+        String key = SolveCache.keyOf(letters);
+        if (grid == null || !key.equals(gridLetters)) {
+            // Only a level that began while we watched is known to start out empty
+            boolean levelStarted = gridLetters != null && !key.equals(gridLetters);
+            grid = crosswordReader.detect(scannedBoard);
+            gridTrusted = grid != null && levelStarted && grid.isWellFormed();
+            gridLetters = key;
+        } else {
+            grid.update(scannedBoard);
+        }
+        Log.d("OCR", "Grid: " + (grid != null ? grid.describe() + (gridTrusted ? "" : ", lengths not trusted") : "not found"));
+        return grid != null && grid.isFull();
+    }
+
+    // Slot lengths are only used from a cleanly read grid. A grid found part-way through a
+    // level still tells when the level is full, since the tiles it missed were already filled.
+    private boolean hasTrustedGrid() {
+        return grid != null && gridTrusted;
+    }
+
+    private void gridCheck() {
+        if (!swipeActive || grid == null) return;
+        sampleBoard();
+        if (grid.isFull()) {
+            Log.d("OCR", "Grid full, stopping swipes");
+            if (SwiperService.instance != null) SwiperService.instance.cancelQueue();
+            return;
+        }
+        mainHandler.postDelayed(gridCheck, GRID_CHECK_MS);
+    }
+
+    // One traversal over every reading; speculative readings bypass the solve cache
+    private List<Hypothesis> solveHypotheses(DictionaryTier tier, List<DetectedLetter> board) {
+        int n = board.size();
+        char[][] candidates = new char[n][];
+        float[][] confidences = new float[n][];
+        for (int i = 0; i < n; i++) {
+            candidates[i] = board.get(i).candidates;
+            confidences[i] = board.get(i).candidateConfidences;
+        }
+        long start = System.nanoTime();
+        List<Hypothesis> found = tier.solver.solveHypotheses(candidates, confidences,
+                MIN_WORD_LENGTH, n, HYPOTHESIS_MIN_CONFIDENCE, Integer.MAX_VALUE);
+        Log.d("OCR", "Hypotheses: " + found.size() + " words in " + (System.nanoTime() - start) / 1000 + " us");
+        return found;
+    }
+
+    // Built once per recognized wheel; slot i is board letter i
+    private static WheelGeometry wheelOf(List<DetectedLetter> board) {
+        int n = board.size();
+        char[] letters = new char[n];
+        float[] x = new float[n], y = new float[n];
+        for (int i = 0; i < n; i++) {
+            DetectedLetter l = board.get(i);
+            letters[i] = l.text.charAt(0);
+            x[i] = l.centerX;
+            y[i] = l.centerY;
+        }
+        WheelGeometry wheel = new WheelGeometry(letters, x, y, SNAP_TO_RING);
+        Log.d("OCR", "Wheel: center " + Math.round(wheel.centerX()) + "," + Math.round(wheel.centerY())
+                + " r " + Math.round(wheel.radius()) + (wheel.isSnapped() ? ", snapped" : ""));
+        return wheel;
+    }
+
+    // --- MEMORY TIERS ---
+    // IDLE pauses the display and frees the reader's and pools' buffers (kept while auto scan
+    // runs), LEAN also closes the recognizer, MINIMAL also evicts the full dictionary.
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        flushSolveCache();
+        if (!MEMORY_TIERS) return;
+        Residency target = residencyFor(level);
+        if (target.ordinal() <= targetResidency.ordinal()) return;
+        targetResidency = target;
+        mainHandler.removeCallbacks(stepDown);
+        stepDown();
+    }
+
+    private static Residency residencyFor(int level) {
+        switch (level) {
+            case TRIM_MEMORY_RUNNING_CRITICAL:
+            case TRIM_MEMORY_MODERATE:
+            case TRIM_MEMORY_COMPLETE:
+                return Residency.MINIMAL;
+            case TRIM_MEMORY_RUNNING_LOW:
+            case TRIM_MEMORY_BACKGROUND:
+                return Residency.LEAN;
+            case TRIM_MEMORY_RUNNING_MODERATE:
+                return Residency.IDLE;
+            default:
+                // UI_HIDDEN is just the settings activity going away as the game comes up
+                return Residency.ACTIVE;
+        }
+    }
+
+    // Waits out a scan in progress rather than pulling resources from under it
+    private void stepDown() {
+        if (targetResidency.ordinal() <= residency.ordinal()) return;
+        if (isOcrInFlight() || swipeActive) {
+            mainHandler.postDelayed(stepDown, TRIM_RETRY_MS);
+            return;
+        }
+        if (!autoScan) pauseCapture();
+        lumaFrames.trim(0);
+        ringBitmaps.trim(0);
+        if (targetResidency.ordinal() >= Residency.LEAN.ordinal() && recognizer != null) {
+            recognizer.close();
+            recognizer = null;
+        }
+        if (targetResidency == Residency.MINIMAL) evictFullTier();
+        residency = targetResidency;
+        reportFootprint();
+    }
+
+    private void pauseCapture() {
+        if (virtualDisplay == null || capturePaused) return;
+        virtualDisplay.setSurface(null);
+        closeReader(imageReader);
+        imageReader = null;
+        capturePaused = true;
+    }
+
+    // The short tier keeps early taps solving while the full one is remapped. A full tier
+    // still loading is evicted by publish once it lands.
+    private void evictFullTier() {
+        DictionaryTier full = dictionary;
+        if (shortTier == null || full == null || !full.complete) return;
+        dictionary = shortTier;
+        fullTierEvicted = true;
+        if (PERSIST_SOLVE_CACHE && full.cache != null) ioHandler.post(() -> saveSolveCache(full.cache));
+    }
+
+    // Main thread, before a scan: the reader and recognizer come back at once, the frame and
+    // the model warm-up in parallel, and the full dictionary on the io thread
+    private void restoreResidency() {
+        mainHandler.removeCallbacks(stepDown);
+        targetResidency = Residency.ACTIVE;
+        if (residency == Residency.ACTIVE) return;
+        long start = System.nanoTime();
+        if (capturePaused) {
+            capturePaused = false;
+            setupImageReader();
+            frameReady = new CompletableFuture<>();
+            awaitFrame(frameReady);
+        }
+        if (recognizer == null) {
+            warmRecognizer(() -> Log.d("OCR", "Recognizer back in " + (System.nanoTime() - start) / 1000000 + " ms"));
+        }
+        if (fullTierEvicted) {
+            fullTierEvicted = false;
+            ioHandler.post(() -> loadFullTier(start));
+        }
+        residency = Residency.ACTIVE;
+        reportFootprint();
+    }
+
+    private void reportFootprint() {
+        Residency tier = residency;
+        DictionaryTier dict = dictionary;
+        String held = (capturePaused ? "capture paused" : "capturing")
+                + (recognizer == null ? ", no recognizer" : "")
+                + ", dictionary " + (dict != null ? dict.name + " " + dict.solver.memoryFootprint() / 1024 + " KB" : "none");
+        // PSS sampling takes a few ms
+        ioHandler.post(() -> {
+            Runtime rt = Runtime.getRuntime();
+            Log.d("OCR", "Residency " + tier + ": pss " + Debug.getPss() / 1024 + " MB, java heap "
+                    + (rt.totalMemory() - rt.freeMemory()) / (1024 * 1024) + " MB, native heap "
+                    + Debug.getNativeHeapAllocatedSize() / (1024 * 1024) + " MB; " + held);
+        });
+    }
+
+    @Override
+    public void onDestroy() {
+        autoScan = false;
+        cancelInFlight();
+        if (captureHandler != null) {
+            captureHandler.removeCallbacks(autoScanTick);
+            captureHandler.post(this::dropPendingFrame);
+            // Templates belong to the capture thread; quitSafely still runs the save
+            if (USE_GLYPH_CLASSIFIER) captureHandler.post(() -> GlyphTemplates.save(this, glyphClassifier));
+            captureThread.quitSafely();
         }
-        return path;
+        dumpMetrics();
+        // quitSafely drops a delayed save that is not yet due
+        flushSolveCache();
+        if (solveThread != null) solveThread.quitSafely();
+        if (ioThread != null) ioThread.quitSafely();
+        super.onDestroy();
     }
 
     @Override
@@ -0,0 +1,43 @@
+package com.wordscapes.ocr;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+import android.view.WindowManager;
+
+import com.wordscapes.swipe.SwipeProfile;
+
+/**
+ * Calibrated {@link SwipeProfile} storage. Keyed by device model and refresh rate,
+ * since both change how fast the game samples a swipe.
+ */
+public class SwipeProfiles {
+    private static final String PREFS = "swipe_profiles";
+
+    public static SwipeProfile load(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        String key = deviceKey(context);
+        if (!prefs.contains(key + ".base")) return null;
+        return new SwipeProfile(prefs.getString(key + ".name", "calibrated"),
+                prefs.getInt(key + ".base", SwipeProfile.DEFAULT.baseMs),
+                prefs.getInt(key + ".segment", SwipeProfile.DEFAULT.segmentMs),
+                prefs.getFloat(key + ".pixel", SwipeProfile.DEFAULT.pixelMs),
+                prefs.getInt(key + ".dwell", SwipeProfile.DEFAULT.cornerDwellMs));
+    }
+
+    public static void save(Context context, SwipeProfile profile) {
+        String key = deviceKey(context);
+        context.getSharedPreferences(PREFS, Context.MODE_PRIVATE).edit()
+                .putString(key + ".name", profile.name)
+                .putInt(key + ".base", profile.baseMs)
+                .putInt(key + ".segment", profile.segmentMs)
+                .putFloat(key + ".pixel", profile.pixelMs)
+                .putInt(key + ".dwell", profile.cornerDwellMs)
+                .apply();
+    }
+
+    private static String deviceKey(Context context) {
+        WindowManager wm = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
+        return Build.MODEL + "@" + Math.round(wm.getDefaultDisplay().getRefreshRate());
+    }
+}
@@ -4,12 +4,46 @@ import android.accessibilityservice.AccessibilityService;
 import android.accessibilityservice.GestureDescription;
 import android.graphics.Path;
 import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import android.widget.Toast;
 
+import com.wordscapes.swipe.SwipePaths;
+import com.wordscapes.swipe.SwipeProfile;
+
+import java.util.function.Consumer;
+
 public class SwiperService extends AccessibilityService {
 
     public static SwiperService instance;
 
+    /** Hooks each queued word, e.g. to try timings and check whether the game took the word. */
+    public interface StrokeGate {
+        /** Main thread, before a word is dispatched; null skips the word. */
+        SwipeProfile profileFor(SwipePaths paths, int path);
+        /** Main thread, after its gesture completed; pass true to swipe the same word again. */
+        void afterStroke(SwipePaths paths, int path, Consumer<Boolean> repeat);
+    }
+
+    // Pause after a completed gesture before the next one, and retries for cancelled ones
+    private static final long SETTLE_GAP_MS = 60;
+    private static final int MAX_RETRIES = 2;
+
+    // --- GESTURE QUEUE (main thread only) ---
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private SwipePaths queue;
+    private int next;
+    private int current = -1;
+    private GestureDescription[] parts;
+    private int part;
+    private int attempts;
+    private int generation;
+    private Runnable onFinished;
+    private long queueStart;
+    private volatile SwipeProfile profile = SwipeProfile.DEFAULT;
+    private StrokeGate gate;
+
     @Override
     public void onServiceConnected() {
         super.onServiceConnected();
@@ -19,6 +53,7 @@ public class SwiperService extends AccessibilityService {
 
     @Override
     public boolean onUnbind(Intent intent) {
+        cancelQueue();
         instance = null;
         return super.onUnbind(intent);
     }
@@ -30,24 +65,165 @@ public class SwiperService extends AccessibilityService {
 
     @Override
     public void onInterrupt() {
+        cancelQueue();
         instance = null;
     }
 
-    public void swipe(float[][] points) {
-        if (points == null || points.length < 2) return;
+    public void setProfile(SwipeProfile profile) {
+        this.profile = profile;
+    }
+
+    public SwipeProfile getProfile() {
+        return profile;
+    }
+
+    /** Main thread; null removes the gate. */
+    public void setStrokeGate(StrokeGate gate) {
+        this.gate = gate;
+    }
+
+    /**
+     * Swipes each path in turn, starting the next as soon as the previous gesture
+     * completes. Replaces any queue still running; onFinished runs on the main thread
+     * once the queue drains or is cancelled. Safe to call from any thread.
+     */
+    public void enqueue(SwipePaths paths, Runnable onFinished) {
+        handler.post(() -> {
+            cancelQueue();
+            queue = paths;
+            next = 0;
+            this.onFinished = onFinished;
+            queueStart = System.nanoTime();
+            dispatchNext(generation);
+        });
+    }
+
+    /**
+     * Drops every queued gesture; a gesture already on screen still runs to its end.
+     * Delayed callbacks of the old queue see a stale generation and do nothing.
+     */
+    public void cancelQueue() {
+        if (Looper.myLooper() != Looper.getMainLooper()) {
+            handler.post(this::cancelQueue);
+            return;
+        }
+        generation++;
+        boolean wasActive = queue != null && (current >= 0 || next < queue.size());
+        queue = null;
+        current = -1;
+        parts = null;
+        if (wasActive) Log.d("OCR", "Gesture queue cancelled");
+        finish();
+    }
+
+    private void dispatchNext(int gen) {
+        if (gen != generation) return;
+        current = queue != null && next < queue.size() ? next++ : -1;
+        attempts = 0;
+        if (current < 0) {
+            Log.d("OCR", "Gesture queue drained in " + (System.nanoTime() - queueStart) / 1000000 + " ms");
+            finish();
+            return;
+        }
+        dispatchCurrent(gen);
+    }
+
+    private void dispatchCurrent(int gen) {
+        SwipeProfile wordProfile = gate != null ? gate.profileFor(queue, current) : profile;
+        parts = wordProfile != null ? gesturesOf(queue, current, wordProfile) : null;
+        if (parts == null) {
+            dispatchNext(gen);
+            return;
+        }
+        part = 0;
+        dispatchPart(gen);
+    }
+
+    // Words with corner dwell are a chain of continued strokes, one gesture each
+    private void dispatchPart(int gen) {
+        boolean accepted = dispatchGesture(parts[part], new GestureResultCallback() {
+            @Override
+            public void onCompleted(GestureDescription description) {
+                if (gen != generation) return;
+                if (++part < parts.length) dispatchPart(gen);
+                else if (gate != null) gate.afterStroke(queue, current, repeat -> afterStroke(gen, repeat));
+                else handler.postDelayed(() -> dispatchNext(gen), SETTLE_GAP_MS);
+            }
+
+            @Override
+            public void onCancelled(GestureDescription description) {
+                if (gen == generation) retryOrSkip(gen);
+            }
+        }, handler);
+        if (!accepted) retryOrSkip(gen);
+    }
+
+    private void afterStroke(int gen, boolean repeat) {
+        if (gen != generation) return;
+        if (repeat) handler.postDelayed(() -> {
+            if (gen == generation) dispatchCurrent(gen);
+        }, SETTLE_GAP_MS);
+        else handler.postDelayed(() -> dispatchNext(gen), SETTLE_GAP_MS);
+    }
+
+    private void retryOrSkip(int gen) {
+        if (++attempts <= MAX_RETRIES) {
+            Log.d("OCR", "Gesture cancelled, retry " + attempts);
+            handler.postDelayed(() -> {
+                if (gen == generation) dispatchCurrent(gen);
+            }, SETTLE_GAP_MS);
+        } else {
+            Log.w("OCR", "Gesture dropped after " + MAX_RETRIES + " retries");
+            handler.postDelayed(() -> dispatchNext(gen), SETTLE_GAP_MS);
+        }
+    }
+
+    private void finish() {
+        Runnable done = onFinished;
+        onFinished = null;
+        if (done != null) done.run();
+    }
 
-        Path path = new Path();
-        path.moveTo(points[0][0], points[0][1]);
+    private static GestureDescription[] gesturesOf(SwipePaths paths, int p, SwipeProfile profile) {
+        int points = paths.points(p);
+        if (points < 2) return null;
 
-        for (int i = 1; i < points.length; i++) {
-            path.lineTo(points[i][0], points[i][1]);
+        if (profile.cornerDwellMs == 0) {
+            Path path = new Path();
+            path.moveTo(paths.x(p, 0), paths.y(p, 0));
+
+            for (int i = 1; i < points; i++) {
+                path.lineTo(paths.x(p, i), paths.y(p, i));
+            }
+
+            GestureDescription.Builder builder = new GestureDescription.Builder();
+            builder.addStroke(new GestureDescription.StrokeDescription(path, 0, profile.strokeMs(paths, p)));
+            return new GestureDescription[] { builder.build() };
         }
 
-        GestureDescription.Builder builder = new GestureDescription.Builder();
-        // Determine duration based on word length (longer words = slower swipe)
-        long duration = Math.max(200, points.length * 100);
-        
-        builder.addStroke(new GestureDescription.StrokeDescription(path, 0, duration));
-        dispatchGesture(builder.build(), null, null);
+        // Move to each letter, then hold on it (a 1 px wiggle) before turning
+        int segments = points - 1;
+        GestureDescription[] gestures = new GestureDescription[2 * segments - 1];
+        GestureDescription.StrokeDescription stroke = null;
+        for (int i = 0; i < segments; i++) {
+            Path move = new Path();
+            move.moveTo(paths.x(p, i), paths.y(p, i));
+            move.lineTo(paths.x(p, i + 1), paths.y(p, i + 1));
+            boolean last = i == segments - 1;
+            stroke = stroke == null
+                    ? new GestureDescription.StrokeDescription(move, 0, profile.segmentMs(paths, p, i), !last)
+                    : stroke.continueStroke(move, 0, profile.segmentMs(paths, p, i), !last);
+            gestures[2 * i] = new GestureDescription.Builder().addStroke(stroke).build();
+            if (last) break;
+
+            float x = paths.x(p, i + 1), y = paths.y(p, i + 1);
+            Path dwell = new Path();
+            dwell.moveTo(x, y);
+            dwell.lineTo(x + 1, y);
+            dwell.lineTo(x, y);
+            stroke = stroke.continueStroke(dwell, 0, profile.cornerDwellMs, true);
+            gestures[2 * i + 1] = new GestureDescription.Builder().addStroke(stroke).build();
+        }
+        return gestures;
     }
 }
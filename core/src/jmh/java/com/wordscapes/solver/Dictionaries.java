@@ -0,0 +1,65 @@
+package com.wordscapes.solver;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * Benchmark input: the word list named by -Ddictionary, or a generated one with
+ * English-like letter frequencies when that file is missing.
+ */
+final class Dictionaries {
+    private static final String FREQUENT = "EEEEEEAAAARRRIIIOOOTTTNNNSSSLLCCUUDDPMMHGBFYWKVXZJQ";
+
+    private static byte[] text;
+    private static Trie trie;
+
+    private Dictionaries() {}
+
+    static synchronized byte[] text() throws IOException {
+        if (text == null) {
+            File file = new File(System.getProperty("dictionary", ""));
+            if (file.isFile()) {
+                text = Files.readAllBytes(file.toPath());
+            } else {
+                System.out.println("No dictionary at '" + file + "', using a generated word list");
+                text = generate(150000, 42).getBytes(StandardCharsets.UTF_8);
+            }
+        }
+        return text;
+    }
+
+    static synchronized Trie trie() throws IOException {
+        if (trie == null) trie = parse(text());
+        return trie;
+    }
+
+    static Trie parse(byte[] text) throws IOException {
+        Trie t = new Trie();
+        t.insertAll(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(text), StandardCharsets.UTF_8)));
+        return t;
+    }
+
+    static byte[] binary(Trie trie) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trie.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static String generate(int count, long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(count * 8);
+        for (int i = 0; i < count; i++) {
+            int length = 2 + random.nextInt(8);
+            for (int j = 0; j < length; j++) sb.append(FREQUENT.charAt(random.nextInt(FREQUENT.length())));
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,42 @@
+package com.wordscapes.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/** Startup cost: parsing words.txt versus bulk-reading the precompiled words.dawg. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DictionaryLoadBenchmark {
+
+    private byte[] text;
+    private ByteBuffer binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        text = Dictionaries.text();
+        // Direct buffer, like the mapped asset on device
+        byte[] bytes = Dictionaries.binary(Dictionaries.trie());
+        binary = ByteBuffer.allocateDirect(bytes.length);
+        binary.put(bytes).flip();
+    }
+
+    @Benchmark
+    public Trie parseText() throws IOException {
+        return Dictionaries.parse(text);
+    }
+
+    @Benchmark
+    public Trie readBinary() throws IOException {
+        return Trie.read(binary.duplicate());
+    }
+}
@@ -0,0 +1,58 @@
+package com.wordscapes.solver;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds each engine from the loaded dictionary and reports its index size as
+ * secondary results next to the build time. Add "-prof gc" for allocation totals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FootprintBenchmark {
+
+    @Param({"DAWG", "ANAGRAM_INDEX"})
+    public WordSolver.Engine engine;
+
+    private Trie trie;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long engineBytes;
+        public long pointerTrieBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            engineBytes = 0;
+            pointerTrieBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        trie = Dictionaries.trie();
+    }
+
+    @Benchmark
+    public WordSolver build(Footprint footprint) throws IOException {
+        // Read from the binary form so the DAWG case measures a fresh copy as the app holds it
+        WordSolver solver = WordSolver.create(engine, Trie.read(ByteBuffer.wrap(Dictionaries.binary(trie))));
+        footprint.engineBytes = solver.memoryFootprint();
+        footprint.pointerTrieBytes = trie.pointerTrieFootprint();
+        return solver;
+    }
+}
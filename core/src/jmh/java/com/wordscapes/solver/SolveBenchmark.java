@@ -0,0 +1,40 @@
+package com.wordscapes.solver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** One solve per wheel, as ScannerService issues it (words of 3+ letters, no limit). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SolveBenchmark {
+
+    @Param({"DAWG", "ANAGRAM_INDEX"})
+    public WordSolver.Engine engine;
+
+    // Wheel sizes 3-9, then duplicate-heavy wheels
+    @Param({"CAT", "BEAR", "PLANT", "STREAM", "TRAINED", "REACTION", "TERMINALS", "AABBEE", "EEESSTT", "OOLLDDEE"})
+    public String wheel;
+
+    private WordSolver solver;
+
+    @Setup
+    public void setUp() throws IOException {
+        solver = WordSolver.create(engine, Dictionaries.trie());
+    }
+
+    @Benchmark
+    public List<String> solve() {
+        return solver.solve(wheel, 3, wheel.length(), Integer.MAX_VALUE);
+    }
+}
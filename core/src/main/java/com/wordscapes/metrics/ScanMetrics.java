@@ -0,0 +1,169 @@
+package com.wordscapes.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Per-stage timings of the most recent scans, kept in a fixed ring of slots.
+ *
+ * {@link #begin} hands out a scan id; stages add their durations to it from any
+ * thread, and a slot silently stops accepting time once a newer scan reuses it.
+ * When disabled, begin returns -1 and every record call returns at once.
+ */
+public class ScanMetrics {
+    public enum Stage { ACQUIRE, COPY, PREPROCESS, CLASSIFY, RECOGNIZE, EXTRACT, SOLVE, SCHEDULE, PATHS, SWIPE, TOTAL }
+
+    private static final Stage[] STAGES = Stage.values();
+
+    private final boolean enabled;
+    private final int capacity;
+    private final long[] ids;
+    /** Nanoseconds per slot and stage; -1 when the stage did not run. */
+    private final long[] nanos;
+    private long next;
+
+    public ScanMetrics(int capacity, boolean enabled) {
+        this.enabled = enabled;
+        this.capacity = enabled ? Math.max(1, capacity) : 1;
+        this.ids = new long[this.capacity];
+        this.nanos = new long[this.capacity * STAGES.length];
+        Arrays.fill(ids, -1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Starts a scan and returns its id, or -1 when disabled. */
+    public synchronized long begin() {
+        if (!enabled) return -1;
+        long scan = next++;
+        int slot = (int) (scan % capacity);
+        ids[slot] = scan;
+        Arrays.fill(nanos, slot * STAGES.length, (slot + 1) * STAGES.length, -1);
+        return scan;
+    }
+
+    /** Adds time to a stage of a scan; repeated stages (e.g. one per word) accumulate. */
+    public void record(long scan, Stage stage, long durationNanos) {
+        if (scan < 0) return;
+        synchronized (this) {
+            int slot = (int) (scan % capacity);
+            if (ids[slot] != scan) return;
+            int at = slot * STAGES.length + stage.ordinal();
+            nanos[at] = nanos[at] < 0 ? durationNanos : nanos[at] + durationNanos;
+        }
+    }
+
+    /** Records the time from startNanos (a System.nanoTime value) until now. */
+    public void since(long scan, Stage stage, long startNanos) {
+        if (scan < 0) return;
+        record(scan, stage, System.nanoTime() - startNanos);
+    }
+
+    public synchronized int scanCount() {
+        return (int) Math.min(next, capacity);
+    }
+
+    /** Nearest-rank percentile (0..100) of a stage over the kept scans, in nanoseconds; -1 without samples. */
+    public synchronized long percentile(Stage stage, double p) {
+        long[] samples = samples(stage);
+        if (samples.length == 0) return -1;
+        int rank = (int) Math.ceil(p / 100.0 * samples.length);
+        return samples[Math.min(samples.length, Math.max(1, rank)) - 1];
+    }
+
+    public synchronized long max(Stage stage) {
+        long[] samples = samples(stage);
+        return samples.length == 0 ? -1 : samples[samples.length - 1];
+    }
+
+    // Sorted durations of one stage across slots in use
+    private long[] samples(Stage stage) {
+        long[] out = new long[capacity];
+        int n = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            long v = ids[slot] >= 0 ? nanos[slot * STAGES.length + stage.ordinal()] : -1;
+            if (v >= 0) out[n++] = v;
+        }
+        out = Arrays.copyOf(out, n);
+        Arrays.sort(out);
+        return out;
+    }
+
+    /** One line per stage: count, p50, p95 and max in milliseconds. */
+    public synchronized String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-10s %5s %8s %8s %8s%n", "stage", "n", "p50", "p95", "max"));
+        for (Stage stage : STAGES) {
+            long[] samples = samples(stage);
+            if (samples.length == 0) continue;
+            sb.append(String.format(Locale.ROOT, "%-10s %5d %8.1f %8.1f %8.1f%n", stage, samples.length,
+                    ms(percentile(stage, 50)), ms(percentile(stage, 95)), ms(max(stage))));
+        }
+        return sb.toString();
+    }
+
+    /** Short p50/p95 readout of the main stages, for an overlay. */
+    public synchronized String describeCompact() {
+        StringBuilder sb = new StringBuilder();
+        for (Stage stage : new Stage[] { Stage.RECOGNIZE, Stage.CLASSIFY, Stage.SOLVE, Stage.SWIPE, Stage.TOTAL }) {
+            long p50 = percentile(stage, 50);
+            if (p50 < 0) continue;
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(stage.name().toLowerCase(Locale.ROOT)).append(' ')
+                    .append(Math.round(ms(p50))).append('/').append(Math.round(ms(percentile(stage, 95)))).append(" ms");
+        }
+        return sb.toString();
+    }
+
+    /** One row per kept scan, oldest first; durations in microseconds, empty when a stage did not run. */
+    public synchronized void writeCsv(Writer out) throws IOException {
+        out.write("scan");
+        for (Stage stage : STAGES) out.write("," + stage.name().toLowerCase(Locale.ROOT) + "_us");
+        out.write("\n");
+        for (long scan = Math.max(0, next - capacity); scan < next; scan++) {
+            int slot = (int) (scan % capacity);
+            out.write(Long.toString(scan));
+            for (int s = 0; s < STAGES.length; s++) {
+                long v = nanos[slot * STAGES.length + s];
+                out.write(v >= 0 ? "," + v / 1000 : ",");
+            }
+            out.write("\n");
+        }
+    }
+
+    /** Summary per stage plus the raw rows, durations in microseconds. */
+    public synchronized void writeJson(Writer out) throws IOException {
+        out.write("{\"summary\":{");
+        boolean first = true;
+        for (Stage stage : STAGES) {
+            long[] samples = samples(stage);
+            if (samples.length == 0) continue;
+            if (!first) out.write(",");
+            first = false;
+            out.write("\"" + stage.name().toLowerCase(Locale.ROOT) + "\":{\"n\":" + samples.length
+                    + ",\"p50_us\":" + percentile(stage, 50) / 1000
+                    + ",\"p95_us\":" + percentile(stage, 95) / 1000
+                    + ",\"max_us\":" + max(stage) / 1000 + "}");
+        }
+        out.write("},\"scans\":[");
+        for (long scan = Math.max(0, next - capacity); scan < next; scan++) {
+            int slot = (int) (scan % capacity);
+            out.write(scan > Math.max(0, next - capacity) ? ",{" : "{");
+            out.write("\"scan\":" + scan);
+            for (int s = 0; s < STAGES.length; s++) {
+                long v = nanos[slot * STAGES.length + s];
+                if (v >= 0) out.write(",\"" + STAGES[s].name().toLowerCase(Locale.ROOT) + "_us\":" + v / 1000);
+            }
+            out.write("}");
+        }
+        out.write("]}\n");
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,223 @@
+package com.wordscapes.replay;
+
+import com.wordscapes.metrics.ScanMetrics;
+import com.wordscapes.metrics.ScanMetrics.Stage;
+import com.wordscapes.solver.Hypothesis;
+import com.wordscapes.solver.Trie;
+import com.wordscapes.solver.WordFrequency;
+import com.wordscapes.solver.WordScheduler;
+import com.wordscapes.swipe.WheelGeometry;
+import com.wordscapes.vision.GlyphClassifier;
+import com.wordscapes.vision.LetterExtractor;
+import com.wordscapes.vision.LumaFrame;
+import com.wordscapes.vision.OcrElement;
+import com.wordscapes.vision.PreprocessConfig;
+import com.wordscapes.vision.Preprocessor;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Off-device replay of recorded scans (see {@link ScanRecord}): preprocessing and
+ * segmentation of the ring crop, letter extraction from the recorded OCR output,
+ * solve, scheduling and path building, timed per stage like the app does. Each scan
+ * is solved the way it was on the device: plain or over its recorded slot candidates,
+ * against the same dictionary tier. Reports latency percentiles, throughput, and scans
+ * whose extracted letters or solved words differ from the recording; scans from a tier
+ * that was not supplied are replayed against the full dictionary but not compared.
+ * Run by the core module's replay Gradle task.
+ */
+public class ReplayRunner {
+    private static final int MIN_WORD_LENGTH = 3;
+    private static final PreprocessConfig SEGMENT_PREPROCESS = PreprocessConfig.BINARY_THIRD;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || args.length % 2 != 0) {
+            System.err.println("Usage: ReplayRunner <recordings dir> <words.txt|words.dawg>"
+                    + " [--short words_short.dawg] [--iterations N] [--frequency word_freq.txt]");
+            System.exit(2);
+        }
+        File recordings = new File(args[0]);
+        File dictionaryFile = new File(args[1]);
+        int iterations = 5;
+        WordFrequency frequency = null;
+        Trie shortTrie = null;
+        for (int i = 2; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--short": shortTrie = loadDictionary(new File(args[i + 1])); break;
+                case "--iterations": iterations = Integer.parseInt(args[i + 1]); break;
+                case "--frequency": frequency = readFrequency(new File(args[i + 1])); break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        List<ScanRecord> records = new ArrayList<>();
+        for (File txt : recordFiles(recordings)) records.add(ScanRecord.read(txt));
+        if (records.isEmpty()) {
+            System.err.println("No scan records under " + recordings);
+            System.exit(1);
+        }
+        Trie trie = loadDictionary(dictionaryFile);
+        System.out.println("Replaying " + records.size() + " scans x " + iterations + " against " + trie.describeFootprint());
+
+        ReplayRunner runner = new ReplayRunner(trie, shortTrie, new WordScheduler(frequency));
+        runner.run(records, 1, null); // warm-up, unmeasured
+        ScanMetrics metrics = new ScanMetrics(records.size() * iterations, true);
+        long start = System.nanoTime();
+        runner.run(records, iterations, metrics);
+        long elapsed = System.nanoTime() - start;
+
+        System.out.print(metrics.describe());
+        System.out.printf(Locale.ROOT, "%d scans in %.1f ms: %.1f scans/s%n", records.size() * iterations,
+                elapsed / 1e6, records.size() * iterations / (elapsed / 1e9));
+        if (runner.letterMismatches > 0) System.out.println(runner.letterMismatches + " scan(s) extracted different letters");
+        if (runner.unchecked > 0) System.out.println(runner.unchecked + " scan(s) from a tier not supplied, not compared");
+        System.out.println(runner.wordMismatches == 0 ? "Solved words match the recordings"
+                : runner.wordMismatches + " scan(s) solved differently from the recordings");
+    }
+
+    private final Trie trie, shortTrie;
+    private final WordScheduler scheduler;
+    private final Preprocessor preprocessor = new Preprocessor();
+    private final GlyphClassifier classifier = new GlyphClassifier();
+    private final LumaFrame binary = new LumaFrame(2, 2);
+    private final float[] pathBuffer = new float[2 * 32];
+    private int pathChecksum;
+    private String extracted;
+    int letterMismatches, wordMismatches, unchecked;
+
+    ReplayRunner(Trie trie, Trie shortTrie, WordScheduler scheduler) {
+        this.trie = trie;
+        this.shortTrie = shortTrie;
+        this.scheduler = scheduler;
+    }
+
+    /** Replays every record iterations times, counting disagreements with the recordings on the first pass. */
+    void run(List<ScanRecord> records, int iterations, ScanMetrics metrics) {
+        letterMismatches = wordMismatches = unchecked = 0;
+        for (int it = 0; it < iterations; it++) {
+            for (ScanRecord record : records) {
+                long scan = metrics != null ? metrics.begin() : -1;
+                long scanStart = System.nanoTime();
+                List<String> words = replay(record, scan, metrics);
+                if (metrics != null) metrics.since(scan, Stage.TOTAL, scanStart);
+                if (it > 0) continue;
+                if (!extracted.equals(record.letters)) letterMismatches++;
+                if (trieFor(record) == null) unchecked++;
+                else if (!new HashSet<>(words).equals(new HashSet<>(record.words))) wordMismatches++;
+            }
+        }
+    }
+
+    // The tier the scan was solved against, or null when that tier was not supplied
+    private Trie trieFor(ScanRecord record) {
+        return "short".equals(record.tier) ? shortTrie : trie;
+    }
+
+    private List<String> replay(ScanRecord record, long scan, ScanMetrics metrics) {
+        if (record.frame != null) {
+            long t = System.nanoTime();
+            preprocessor.apply(record.frame, SEGMENT_PREPROCESS, binary);
+            if (metrics != null) metrics.since(scan, Stage.PREPROCESS, t);
+            t = System.nanoTime();
+            classifier.segment(binary, 0, 0, SEGMENT_PREPROCESS.downscale);
+            if (metrics != null) metrics.since(scan, Stage.CLASSIFY, t);
+        }
+
+        long t = System.nanoTime();
+        List<OcrElement> letters = LetterExtractor.extract(record.ocr, record.cropX, record.cropY, record.scale);
+        int n = letters.size();
+        char[] chars = new char[n];
+        float[] x = new float[n], y = new float[n];
+        for (int i = 0; i < n; i++) {
+            OcrElement l = letters.get(i);
+            chars[i] = l.text.charAt(0);
+            x[i] = l.centerX();
+            y[i] = l.centerY();
+        }
+        extracted = new String(chars);
+        if (metrics != null) metrics.since(scan, Stage.EXTRACT, t);
+
+        t = System.nanoTime();
+        Trie tier = trieFor(record) != null ? trieFor(record) : trie;
+        List<String> words;
+        List<Hypothesis> found = null;
+        if (record.isHypotheses() && record.candidates.size() == n) {
+            found = tier.solveHypotheses(record.candidates.toArray(new char[0][]), record.confidences.toArray(new float[0][]),
+                    MIN_WORD_LENGTH, n, record.minConfidence, Integer.MAX_VALUE);
+            words = new ArrayList<>(found.size());
+            for (Hypothesis h : found) words.add(h.word);
+        } else {
+            words = tier.solve(extracted, MIN_WORD_LENGTH, n, Integer.MAX_VALUE);
+        }
+        if (metrics != null) metrics.since(scan, Stage.SOLVE, t);
+
+        t = System.nanoTime();
+        List<String> scheduled = null;
+        List<Hypothesis> scheduledHypotheses = null;
+        if (found != null) scheduledHypotheses = scheduler.scheduleHypotheses(found, null);
+        else scheduled = scheduler.schedule(words, null);
+        if (metrics != null) metrics.since(scan, Stage.SCHEDULE, t);
+
+        t = System.nanoTime();
+        WheelGeometry wheel = new WheelGeometry(chars, x, y, true);
+        if (scheduledHypotheses != null) {
+            for (Hypothesis h : scheduledHypotheses) checksum(wheel.path(h.slots, pathBuffer));
+        } else {
+            for (String word : scheduled) checksum(wheel.path(word, pathBuffer));
+        }
+        if (metrics != null) metrics.since(scan, Stage.PATHS, t);
+        return words;
+    }
+
+    private void checksum(int points) {
+        if (points > 0) pathChecksum += Float.floatToIntBits(pathBuffer[2 * points - 1]);
+    }
+
+    // A single session directory, or a directory of sessions; scan records in name order
+    static List<File> recordFiles(File root) {
+        List<File> files = new ArrayList<>();
+        File[] entries = root.listFiles();
+        if (entries == null) return files;
+        Arrays.sort(entries);
+        for (File f : entries) {
+            if (f.isDirectory()) files.addAll(recordFiles(f));
+            else if (f.getName().startsWith("scan_") && f.getName().endsWith(".txt")) files.add(f);
+        }
+        return files;
+    }
+
+    static Trie loadDictionary(File file) throws IOException {
+        if (file.getName().endsWith(".dawg")) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return Trie.read(buffer);
+            }
+        }
+        Trie trie = new Trie();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            trie.insertAll(in);
+        }
+        return trie;
+    }
+
+    private static WordFrequency readFrequency(File file) throws IOException {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            return WordFrequency.read(in);
+        }
+    }
+}
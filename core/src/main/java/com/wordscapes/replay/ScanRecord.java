@@ -0,0 +1,174 @@
+package com.wordscapes.replay;
+
+import com.wordscapes.vision.LumaFrame;
+import com.wordscapes.vision.OcrElement;
+import com.wordscapes.vision.Pgm;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything one scan saw and did: the ring crop (a PGM beside the record), the OCR
+ * elements with the crop offset and scale they are relative to, the wheel letters and
+ * each slot's candidate readings, how and against which dictionary tier it was solved,
+ * the words solved and the gesture paths swiped.
+ *
+ * Stored as name.txt, one "key=value" per line; ocr, slot and path lines repeat.
+ */
+public final class ScanRecord {
+    public static final String SOLVE_PLAIN = "plain";
+    public static final String SOLVE_HYPOTHESES = "hypotheses";
+
+    /** Where the letters came from: mlkit, classifier, relocate or cache. */
+    public String source;
+    public int cropX, cropY, scale = 1;
+    public final List<OcrElement> ocr = new ArrayList<>();
+    public String letters = "";
+    /** Candidate letters per wheel slot, best first, with confidences relative to the best. */
+    public final List<char[]> candidates = new ArrayList<>();
+    public final List<float[]> confidences = new ArrayList<>();
+    /** Dictionary tier name (short or full) the words were solved against. */
+    public String tier;
+    /** SOLVE_PLAIN, or SOLVE_HYPOTHESES with the confidence threshold below. */
+    public String solve = SOLVE_PLAIN;
+    public float minConfidence;
+    public final List<String> words = new ArrayList<>();
+    /** Flat x, y pairs per swiped word. */
+    public final List<float[]> paths = new ArrayList<>();
+    public LumaFrame frame;
+
+    public void setOcr(String source, List<OcrElement> elements, int cropX, int cropY, int scale) {
+        this.source = source;
+        this.cropX = cropX;
+        this.cropY = cropY;
+        this.scale = scale;
+        ocr.clear();
+        ocr.addAll(elements);
+    }
+
+    public void addSlot(char[] slotCandidates, float[] slotConfidences) {
+        candidates.add(slotCandidates.clone());
+        confidences.add(slotConfidences.clone());
+    }
+
+    public void setSolve(String tier, String solve, float minConfidence) {
+        this.tier = tier;
+        this.solve = solve;
+        this.minConfidence = minConfidence;
+    }
+
+    public boolean isHypotheses() {
+        return SOLVE_HYPOTHESES.equals(solve);
+    }
+
+    public void write(File dir, String name) throws IOException {
+        if (frame != null) Pgm.write(frame, new File(dir, name + ".pgm"));
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(new File(dir, name + ".txt")), StandardCharsets.UTF_8)) {
+            out.write("source=" + source + "\n");
+            out.write("crop=" + cropX + "," + cropY + "," + scale + "\n");
+            for (OcrElement e : ocr) {
+                out.write("ocr=" + e.text.replace(' ', '_') + " " + e.left + " " + e.top + " " + e.right + " " + e.bottom
+                        + " " + e.confidence + "\n");
+            }
+            out.write("letters=" + letters + "\n");
+            for (int i = 0; i < candidates.size(); i++) {
+                StringBuilder sb = new StringBuilder("slot=").append(candidates.get(i)).append(' ');
+                float[] c = confidences.get(i);
+                for (int k = 0; k < c.length; k++) sb.append(k > 0 ? "," : "").append(c[k]);
+                out.write(sb.append('\n').toString());
+            }
+            out.write("tier=" + tier + "\n");
+            out.write("solve=" + solve + (isHypotheses() ? " " + minConfidence : "") + "\n");
+            out.write("words=" + String.join(",", words) + "\n");
+            for (float[] path : paths) {
+                StringBuilder sb = new StringBuilder("path=");
+                for (int i = 0; i + 1 < path.length; i += 2) {
+                    if (i > 0) sb.append(' ');
+                    sb.append(Math.round(path[i])).append(',').append(Math.round(path[i + 1]));
+                }
+                out.write(sb.append('\n').toString());
+            }
+        }
+    }
+
+    /** Reads name.txt and, when present, the name.pgm frame beside it. */
+    public static ScanRecord read(File txt) throws IOException {
+        ScanRecord record = new ScanRecord();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(txt), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                int eq = line.indexOf('=');
+                if (eq < 0) continue;
+                String key = line.substring(0, eq), value = line.substring(eq + 1);
+                switch (key) {
+                    case "source":
+                        record.source = value;
+                        break;
+                    case "crop": {
+                        String[] p = value.split(",");
+                        record.cropX = Integer.parseInt(p[0]);
+                        record.cropY = Integer.parseInt(p[1]);
+                        record.scale = Integer.parseInt(p[2]);
+                        break;
+                    }
+                    case "ocr": {
+                        String[] p = value.split(" ");
+                        record.ocr.add(new OcrElement(p[0].replace('_', ' '), Integer.parseInt(p[1]),
+                                Integer.parseInt(p[2]), Integer.parseInt(p[3]), Integer.parseInt(p[4]),
+                                p.length > 5 ? Float.parseFloat(p[5]) : 1f));
+                        break;
+                    }
+                    case "slot": {
+                        int space = value.indexOf(' ');
+                        String[] c = value.substring(space + 1).split(",");
+                        float[] slotConfidences = new float[c.length];
+                        for (int k = 0; k < c.length; k++) slotConfidences[k] = Float.parseFloat(c[k]);
+                        record.addSlot(value.substring(0, space).toCharArray(), slotConfidences);
+                        break;
+                    }
+                    case "tier":
+                        record.tier = value;
+                        break;
+                    case "solve": {
+                        String[] p = value.split(" ");
+                        record.solve = p[0];
+                        if (p.length > 1) record.minConfidence = Float.parseFloat(p[1]);
+                        break;
+                    }
+                    case "letters":
+                        record.letters = value;
+                        break;
+                    case "words":
+                        if (!value.isEmpty()) for (String w : value.split(",")) record.words.add(w);
+                        break;
+                    case "path": {
+                        String[] points = value.split(" ");
+                        float[] path = new float[2 * points.length];
+                        for (int i = 0; i < points.length; i++) {
+                            int comma = points[i].indexOf(',');
+                            path[2 * i] = Float.parseFloat(points[i].substring(0, comma));
+                            path[2 * i + 1] = Float.parseFloat(points[i].substring(comma + 1));
+                        }
+                        record.paths.add(path);
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+        }
+        String name = txt.getName();
+        File pgm = new File(txt.getParentFile(), name.substring(0, name.length() - 4) + ".pgm");
+        if (pgm.exists()) record.frame = Pgm.read(pgm);
+        return record;
+    }
+}
@@ -0,0 +1,152 @@
+package com.wordscapes.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Dictionary grouped into anagram classes keyed by their sorted letters.
+ *
+ * A key packs the sorted letters 5 bits apiece into a long, so words longer than
+ * {@link #MAX_KEY_LENGTH} are not indexed (no wheel is that large). Classes live in
+ * one open-addressing table; a query enumerates the distinct sub-multisets of the
+ * wheel, building each key in sorted order, and probes the table once per subset.
+ */
+public class AnagramIndex implements WordSolver {
+    static final int MAX_KEY_LENGTH = 12;
+
+    private final long[] tableKeys;   // 0 = empty slot
+    private final int[] tableClass;
+    private final int tableMask;
+    private final int[] classStart;   // words of class c are words[classStart[c] .. classStart[c + 1])
+    private final String[] words;
+    // Candidate readings need prefix pruning, which only the DAWG has
+    private final Trie dictionary;
+
+    public AnagramIndex(Trie dictionary) {
+        this.dictionary = dictionary;
+        List<String> all = new ArrayList<>(dictionary.wordCount());
+        dictionary.forEachWord(w -> {
+            if (w.length() <= MAX_KEY_LENGTH) all.add(w);
+        });
+
+        // Sort words by key so each anagram class is one contiguous run
+        long[] keyed = new long[all.size()];
+        long[] sortKeys = new long[all.size()];
+        for (int i = 0; i < keyed.length; i++) sortKeys[i] = keyOf(all.get(i));
+        Integer[] order = new Integer[keyed.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> sortKeys[a] != sortKeys[b] ? Long.compare(sortKeys[a], sortKeys[b]) : Integer.compare(a, b));
+
+        words = new String[order.length];
+        int[] starts = new int[order.length + 1];
+        int classes = 0;
+        for (int i = 0; i < order.length; i++) {
+            words[i] = all.get(order[i]);
+            keyed[i] = sortKeys[order[i]];
+            if (i == 0 || keyed[i] != keyed[i - 1]) starts[classes++] = i;
+        }
+        starts[classes] = order.length;
+        classStart = Arrays.copyOf(starts, classes + 1);
+
+        int capacity = Integer.highestOneBit(Math.max(2, classes * 2 - 1)) << 1;
+        tableKeys = new long[capacity];
+        tableClass = new int[capacity];
+        tableMask = capacity - 1;
+        for (int c = 0; c < classes; c++) {
+            long key = keyed[classStart[c]];
+            int slot = slotOf(key);
+            while (tableKeys[slot] != 0) slot = (slot + 1) & tableMask;
+            tableKeys[slot] = key;
+            tableClass[slot] = c;
+        }
+    }
+
+    @Override
+    public List<String> solve(String letters, int minLength, int maxLength, int limit) {
+        int[] counts = new int[26];
+        int available = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            int index = Character.toUpperCase(letters.charAt(i)) - 'A';
+            if (index < 0 || index >= 26) continue;
+            counts[index]++;
+            available++;
+        }
+        maxLength = Math.min(Math.min(maxLength, available), MAX_KEY_LENGTH);
+        minLength = Math.max(1, minLength);
+
+        List<String> results = null;
+        for (int length = maxLength; length >= minLength && limit > 0; length--) {
+            results = enumerate(0, 0L, 0, length, available, counts, results, limit);
+            if (results != null && results.size() >= limit) break;
+        }
+        return results != null ? results : new ArrayList<>();
+    }
+
+    // Picks 0..counts[letter] copies of each letter in turn; remaining = letters not yet decided
+    private List<String> enumerate(int letter, long key, int size, int length, int remaining,
+                                   int[] counts, List<String> results, int limit) {
+        if (size == length) {
+            int c = lookup(key);
+            if (c < 0) return results;
+            for (int i = classStart[c]; i < classStart[c + 1]; i++) {
+                if (results == null) results = new ArrayList<>();
+                results.add(words[i]);
+                if (results.size() >= limit) break;
+            }
+            return results;
+        }
+        if (size + remaining < length) return results;
+
+        while (counts[letter] == 0) letter++;
+        int count = counts[letter];
+        int take = Math.min(count, length - size);
+        long extended = key;
+        for (int k = 0; k < take; k++) extended = (extended << 5) | (letter + 1);
+        // Most copies first keeps the probe order stable; every k is its own sub-multiset
+        for (int k = take; k >= 0; k--) {
+            results = enumerate(letter + 1, extended, size + k, length, remaining - count, counts, results, limit);
+            if (results != null && results.size() >= limit) break;
+            extended >>>= 5;
+        }
+        return results;
+    }
+
+    @Override
+    public List<Hypothesis> solveHypotheses(char[][] candidates, float[][] confidences,
+                                            int minLength, int maxLength, float minConfidence, int limit) {
+        return dictionary.solveHypotheses(candidates, confidences, minLength, maxLength, minConfidence, limit);
+    }
+
+    private int lookup(long key) {
+        int slot = slotOf(key);
+        long k;
+        while ((k = tableKeys[slot]) != 0) {
+            if (k == key) return tableClass[slot];
+            slot = (slot + 1) & tableMask;
+        }
+        return -1;
+    }
+
+    private int slotOf(long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> 40) & tableMask;
+    }
+
+    static long keyOf(String word) {
+        char[] sorted = word.toCharArray();
+        Arrays.sort(sorted);
+        long key = 0;
+        for (char c : sorted) key = (key << 5) | (c - 'A' + 1);
+        return key;
+    }
+
+    @Override
+    public int wordCount() { return words.length; }
+
+    @Override
+    public long memoryFootprint() {
+        long bytes = 8L * tableKeys.length + 4L * tableClass.length + 4L * classStart.length + 4L * words.length;
+        for (String w : words) bytes += 40 + w.length(); // String header + backing array
+        return bytes;
+    }
+}
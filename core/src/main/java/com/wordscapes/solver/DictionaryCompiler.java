@@ -0,0 +1,76 @@
+package com.wordscapes.solver;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Build-time tool: compiles words.txt into the binary words.dawg asset.
+ * Run by the app module's compileDictionary Gradle task.
+ *
+ * With --max-length and/or --frequency/--top it writes a subset instead (words no
+ * longer than the limit, plus the most frequent words of any length): the small
+ * tier the app loads first.
+ */
+public class DictionaryCompiler {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2 || args.length % 2 != 0) {
+            System.err.println("Usage: DictionaryCompiler <words.txt> <words.dawg>"
+                    + " [--max-length N] [--frequency word_freq.txt --top K]");
+            System.exit(2);
+        }
+        File input = new File(args[0]);
+        File output = new File(args[1]);
+        int maxLength = Integer.MAX_VALUE;
+        int top = 0;
+        File frequencyFile = null;
+        for (int i = 2; i < args.length; i += 2) {
+            switch (args[i]) {
+                case "--max-length": maxLength = Integer.parseInt(args[i + 1]); break;
+                case "--frequency": frequencyFile = new File(args[i + 1]); break;
+                case "--top": top = Integer.parseInt(args[i + 1]); break;
+                default:
+                    System.err.println("Unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        Trie trie = new Trie();
+        try (Reader in = new InputStreamReader(new FileInputStream(input), StandardCharsets.UTF_8)) {
+            trie.insertAll(new BufferedReader(in));
+        }
+
+        if (maxLength != Integer.MAX_VALUE || frequencyFile != null) {
+            WordFrequency frequency = null;
+            if (frequencyFile != null && frequencyFile.exists()) {
+                try (Reader in = new InputStreamReader(new FileInputStream(frequencyFile), StandardCharsets.UTF_8)) {
+                    frequency = WordFrequency.read(new BufferedReader(in));
+                }
+            }
+            trie = subset(trie, maxLength, frequency, top);
+        }
+
+        File parent = output.getParentFile();
+        if (parent != null) parent.mkdirs();
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(output))) {
+            trie.writeTo(out);
+        }
+        System.out.println("Compiled " + output.getName() + ": " + trie.describeFootprint());
+    }
+
+    static Trie subset(Trie full, int maxLength, WordFrequency frequency, int top) {
+        Trie subset = new Trie();
+        full.forEachWord(word -> {
+            if (word.length() <= maxLength || (frequency != null && frequency.rank(word) < top)) subset.insert(word);
+        });
+        subset.freeze();
+        return subset;
+    }
+}
@@ -0,0 +1,21 @@
+package com.wordscapes.solver;
+
+/** A word found on an uncertain wheel: which slot each letter came from and how likely the reading is. */
+public final class Hypothesis {
+    public final String word;
+    /** Wheel slot used for each letter of word, in order. */
+    public final int[] slots;
+    /** Product of the chosen candidates' confidences. */
+    public final float confidence;
+
+    Hypothesis(String word, int[] slots, float confidence) {
+        this.word = word;
+        this.slots = slots;
+        this.confidence = confidence;
+    }
+
+    @Override
+    public String toString() {
+        return word + "@" + confidence;
+    }
+}
@@ -0,0 +1,145 @@
+package com.wordscapes.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bounded LRU of final word lists keyed by the wheel's sorted letter multiset,
+ * so reshuffles and replayed levels skip the solve entirely.
+ *
+ * The cache is tied to one dictionary fingerprint: {@link #load} discards a file
+ * written against a different dictionary. {@link #save} copies the entries under
+ * the lock and writes them after releasing it, so lookups never wait on disk.
+ */
+public class SolveCache {
+    private static final int MAGIC = 0x534F4C56; // "SOLV"
+    private static final int FORMAT_VERSION = 1;
+
+    private final int capacity;
+    private final long fingerprint;
+    private final LinkedHashMap<String, List<String>> entries;
+    private int hits, misses;
+    private boolean dirty;
+
+    public SolveCache(int capacity, long fingerprint) {
+        this.capacity = capacity;
+        this.fingerprint = fingerprint;
+        this.entries = new LinkedHashMap<String, List<String>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+                return size() > SolveCache.this.capacity;
+            }
+        };
+    }
+
+    /** Canonical key: upper-cased A-Z letters in sorted order. */
+    public static String keyOf(String letters) {
+        char[] chars = letters.toUpperCase(Locale.ROOT).toCharArray();
+        int n = 0;
+        for (char c : chars) if (c >= 'A' && c <= 'Z') chars[n++] = c;
+        Arrays.sort(chars, 0, n);
+        return new String(chars, 0, n);
+    }
+
+    /** Cached list for the letters, or null on a miss. */
+    public synchronized List<String> get(String letters) {
+        List<String> words = entries.get(keyOf(letters));
+        if (words != null) hits++;
+        else misses++;
+        return words;
+    }
+
+    public synchronized void put(String letters, List<String> words) {
+        entries.put(keyOf(letters), Collections.unmodifiableList(new ArrayList<>(words)));
+        dirty = true;
+    }
+
+    /** True if entries were added since the last save. */
+    public synchronized boolean isDirty() { return dirty; }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() { return entries.size(); }
+
+    public synchronized int hits() { return hits; }
+
+    public synchronized int misses() { return misses; }
+
+    public synchronized String describeStats() {
+        int total = hits + misses;
+        return "cache " + entries.size() + "/" + capacity + ", " + hits + " hits / " + misses + " misses"
+                + (total > 0 ? " (" + (100 * hits / total) + "%)" : "");
+    }
+
+    // --- PERSISTENCE ---
+
+    /** Writes a snapshot of the entries; callers must not save the same file concurrently. */
+    public void save(File file) throws IOException {
+        List<Map.Entry<String, List<String>>> snapshot;
+        synchronized (this) {
+            // Lists are unmodifiable, so copying the references is enough
+            snapshot = new ArrayList<>(entries.size());
+            for (Map.Entry<String, List<String>> e : entries.entrySet()) {
+                snapshot.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue()));
+            }
+            dirty = false;
+        }
+        boolean saved = false;
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(fingerprint);
+                out.writeInt(snapshot.size());
+                // Eldest first, so reloading restores the same LRU order
+                for (Map.Entry<String, List<String>> e : snapshot) {
+                    out.writeUTF(e.getKey());
+                    out.writeInt(e.getValue().size());
+                    for (String w : e.getValue()) out.writeUTF(w);
+                }
+            }
+            if (!tmp.renameTo(file)) throw new IOException("Could not replace " + file);
+            saved = true;
+        } finally {
+            if (!saved) {
+                synchronized (this) {
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    /** Merges a saved cache; returns false (leaving the cache as is) if absent or stale. */
+    public synchronized boolean load(File file) throws IOException {
+        if (!file.exists()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || in.readLong() != fingerprint) return false;
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                int size = in.readInt();
+                List<String> words = new ArrayList<>(size);
+                for (int j = 0; j < size; j++) words.add(in.readUTF());
+                entries.put(key, Collections.unmodifiableList(words));
+            }
+        }
+        return true;
+    }
+}
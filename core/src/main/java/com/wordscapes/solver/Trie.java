@@ -0,0 +1,436 @@
+package com.wordscapes.solver;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Word dictionary stored as a minimized DAWG in flat arrays.
+ *
+ * Words are first inserted into a staging trie (first-child / next-sibling
+ * links in int arrays) and then frozen: identical suffix subtrees are merged and
+ * every node becomes one entry in {@link #nodeMask} / {@link #nodeEdge}. A node's
+ * mask holds one bit per outgoing letter plus {@link #TERMINAL}; its children sit
+ * in {@link #edgeChild} in letter order, starting at {@code nodeEdge[node]}.
+ *
+ * The frozen arrays can be written with {@link #writeTo} and loaded back with
+ * {@link #read} in one bulk copy; the app ships them precompiled as words.dawg.
+ */
+public class Trie implements WordSolver {
+    static final int TERMINAL = 1 << 26;
+    static final int LETTER_MASK = TERMINAL - 1;
+
+    // Old TrieNode: object header + children ref + flag, plus a 26-slot reference array
+    static final int POINTER_NODE_BYTES = 16 + 16 + 26 * 4;
+
+    // --- BINARY FORMAT: header ints, then nodeMask, nodeEdge, edgeChild (big-endian) ---
+    public static final int MAGIC = 0x44415747; // "DAWG"
+    public static final int FORMAT_VERSION = 1;
+    static final int HEADER_INTS = 7;
+
+    // --- FROZEN DAWG ---
+    int[] nodeMask = { 0 };
+    int[] nodeEdge = { 0 };
+    int[] edgeChild = new int[0];
+    int root = 0;
+    private int wordCount;
+    private int trieNodeCount = 1;
+
+    // --- STAGING TRIE (only alive between insert() and freeze()) ---
+    private byte[] sLetter;
+    private int[] sFirstChild;
+    private int[] sNext;
+    private boolean[] sTerminal;
+    private int sCount;
+
+    public synchronized void insert(String word) {
+        if (word.isEmpty()) return;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'A' || c > 'Z') return;
+        }
+        if (sLetter == null) thaw();
+
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+            byte letter = (byte) (word.charAt(i) - 'A');
+            int child = sFirstChild[node];
+            while (child != -1 && sLetter[child] != letter) child = sNext[child];
+            if (child == -1) {
+                child = newStagingNode(letter);
+                sNext[child] = sFirstChild[node];
+                sFirstChild[node] = child;
+            }
+            node = child;
+        }
+        if (!sTerminal[node]) {
+            sTerminal[node] = true;
+            wordCount++;
+        }
+    }
+
+    /** Inserts one word per line, ignoring blank lines and case. */
+    public void insertAll(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String word = line.trim();
+            if (!word.isEmpty()) insert(word.toUpperCase(Locale.ROOT));
+        }
+        freeze();
+    }
+
+    public List<String> solve(String letters) {
+        return solve(letters, 1, letters.length(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Every dictionary word spellable from the letter multiset, each emitted once,
+     * longest first and alphabetical within a length. Walks the DAWG against a
+     * 26-entry count vector one target length at a time, so the limit cuts the
+     * search short and nothing is allocated until a word is found.
+     */
+    @Override
+    public List<String> solve(String letters, int minLength, int maxLength, int limit) {
+        freeze();
+        int[] counts = new int[26];
+        int available = 0;
+        int availableMask = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            int index = Character.toUpperCase(letters.charAt(i)) - 'A';
+            if (index < 0 || index >= 26) continue;
+            counts[index]++;
+            availableMask |= 1 << index;
+            available++;
+        }
+        maxLength = Math.min(maxLength, available);
+        minLength = Math.max(1, minLength);
+
+        List<String> results = null;
+        char[] word = new char[Math.max(0, maxLength)];
+        for (int length = maxLength; length >= minLength && limit > 0; length--) {
+            results = collect(root, 0, length, counts, availableMask, word, results, limit);
+            if (results != null && results.size() >= limit) break;
+        }
+        return results != null ? results : new ArrayList<>();
+    }
+
+    private List<String> collect(int node, int depth, int length, int[] counts, int availableMask,
+                                 char[] word, List<String> results, int limit) {
+        int mask = nodeMask[node];
+        if (depth == length) {
+            if ((mask & TERMINAL) != 0) {
+                if (results == null) results = new ArrayList<>();
+                results.add(new String(word, 0, length));
+            }
+            return results;
+        }
+
+        int edge = nodeEdge[node];
+        for (int bits = mask & availableMask; bits != 0; bits &= bits - 1) {
+            int bit = bits & -bits;
+            int letter = Integer.numberOfTrailingZeros(bit);
+            int child = edgeChild[edge + Integer.bitCount(mask & (bit - 1))];
+
+            int remaining = --counts[letter];
+            word[depth] = (char) ('A' + letter);
+            results = collect(child, depth + 1, length, counts,
+                    remaining == 0 ? availableMask & ~bit : availableMask, word, results, limit);
+            counts[letter]++;
+            if (results != null && results.size() >= limit) break;
+        }
+        return results;
+    }
+
+    /**
+     * Words on a wheel whose slots may each read as several letters (OCR candidate
+     * sets). All readings are explored in one DAWG traversal: a slot is used at most
+     * once, identical slots only in index order, and a branch is cut as soon as its
+     * confidence product drops below minConfidence. A word reachable through several
+     * readings is kept once, with its most confident slot assignment.
+     *
+     * @param candidates letters per slot, upper case
+     * @param confidences matching confidence per candidate, in (0, 1]
+     * @return most confident first, then longest, at most limit entries
+     */
+    @Override
+    public List<Hypothesis> solveHypotheses(char[][] candidates, float[][] confidences,
+                                            int minLength, int maxLength, float minConfidence, int limit) {
+        freeze();
+        int n = Math.min(candidates.length, 31);
+        int[] earlierTwins = new int[n];
+        for (int s = 0; s < n; s++) {
+            for (int t = 0; t < s; t++) {
+                if (Arrays.equals(candidates[s], candidates[t]) && Arrays.equals(confidences[s], confidences[t])) {
+                    earlierTwins[s] |= 1 << t;
+                }
+            }
+        }
+
+        HypothesisSearch search = new HypothesisSearch(candidates, confidences, earlierTwins, n,
+                Math.max(1, minLength), Math.min(maxLength, n), minConfidence);
+        explore(root, 0, 0, 1f, search);
+        if (search.results == null) return new ArrayList<>();
+
+        List<Hypothesis> ranked = new ArrayList<>(search.results.values());
+        Collections.sort(ranked, (a, b) -> {
+            if (a.confidence != b.confidence) return Float.compare(b.confidence, a.confidence);
+            if (a.word.length() != b.word.length()) return b.word.length() - a.word.length();
+            return a.word.compareTo(b.word);
+        });
+        return ranked.size() > limit ? new ArrayList<>(ranked.subList(0, limit)) : ranked;
+    }
+
+    private static final class HypothesisSearch {
+        final char[][] candidates;
+        final float[][] confidences;
+        final int[] earlierTwins;
+        final int slots, minLength, maxLength;
+        final float minConfidence;
+        final char[] word;
+        final int[] path;
+        Map<String, Hypothesis> results;
+
+        HypothesisSearch(char[][] candidates, float[][] confidences, int[] earlierTwins, int slots,
+                         int minLength, int maxLength, float minConfidence) {
+            this.candidates = candidates;
+            this.confidences = confidences;
+            this.earlierTwins = earlierTwins;
+            this.slots = slots;
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.minConfidence = minConfidence;
+            this.word = new char[Math.max(0, maxLength)];
+            this.path = new int[Math.max(0, maxLength)];
+        }
+    }
+
+    private void explore(int node, int depth, int used, float confidence, HypothesisSearch st) {
+        int mask = nodeMask[node];
+        if ((mask & TERMINAL) != 0 && depth >= st.minLength) {
+            String w = new String(st.word, 0, depth);
+            if (st.results == null) st.results = new HashMap<>();
+            Hypothesis existing = st.results.get(w);
+            if (existing == null || confidence > existing.confidence) {
+                st.results.put(w, new Hypothesis(w, Arrays.copyOf(st.path, depth), confidence));
+            }
+        }
+        if (depth == st.maxLength) return;
+
+        for (int s = 0; s < st.slots; s++) {
+            int slotBit = 1 << s;
+            if ((used & slotBit) != 0 || (st.earlierTwins[s] & ~used) != 0) continue;
+            char[] options = st.candidates[s];
+            for (int k = 0; k < options.length; k++) {
+                int letter = options[k] - 'A';
+                if (letter < 0 || letter >= 26) continue;
+                int bit = 1 << letter;
+                if ((mask & bit) == 0) continue;
+                float next = confidence * st.confidences[s][k];
+                if (next < st.minConfidence) continue;
+                st.word[depth] = options[k];
+                st.path[depth] = s;
+                explore(edgeChild[nodeEdge[node] + Integer.bitCount(mask & (bit - 1))], depth + 1, used | slotBit, next, st);
+            }
+        }
+    }
+
+    /** Visits every word in alphabetical order. */
+    public void forEachWord(Consumer<String> action) {
+        freeze();
+        visit(root, new StringBuilder(), action);
+    }
+
+    private void visit(int node, StringBuilder sb, Consumer<String> action) {
+        int mask = nodeMask[node];
+        if ((mask & TERMINAL) != 0) action.accept(sb.toString());
+        int edge = nodeEdge[node];
+        for (int letter = 0; letter < 26; letter++) {
+            if ((mask & (1 << letter)) == 0) continue;
+            sb.append((char) ('A' + letter));
+            visit(edgeChild[edge++], sb, action);
+            sb.setLength(sb.length() - 1);
+        }
+    }
+
+    // --- FOOTPRINT ---
+
+    @Override
+    public int wordCount() { return wordCount; }
+
+    public int nodeCount() { return nodeMask.length; }
+
+    /** Cheap identity of the dictionary contents, for invalidating derived caches. */
+    public long fingerprint() {
+        return ((long) wordCount << 32) ^ ((long) nodeMask.length * 31 + edgeChild.length) ^ root;
+    }
+
+    public int edgeCount() { return edgeChild.length; }
+
+    /** Bytes held by the DAWG arrays. */
+    @Override
+    public long memoryFootprint() {
+        return 4L * (nodeMask.length + nodeEdge.length + edgeChild.length);
+    }
+
+    /** Estimated bytes the same words took as a TrieNode-per-letter object graph. */
+    public long pointerTrieFootprint() {
+        return (long) trieNodeCount * POINTER_NODE_BYTES;
+    }
+
+    public String describeFootprint() {
+        return wordCount + " words, " + nodeCount() + " nodes, " + edgeCount() + " edges, "
+                + (memoryFootprint() / 1024) + " KB (pointer trie ~" + (pointerTrieFootprint() / 1024) + " KB)";
+    }
+
+    // --- SERIALIZATION ---
+
+    public synchronized void writeTo(OutputStream out) throws IOException {
+        freeze();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(wordCount);
+        data.writeInt(trieNodeCount);
+        data.writeInt(nodeMask.length);
+        data.writeInt(edgeChild.length);
+        data.writeInt(root);
+        for (int v : nodeMask) data.writeInt(v);
+        for (int v : nodeEdge) data.writeInt(v);
+        for (int v : edgeChild) data.writeInt(v);
+        data.flush();
+    }
+
+    /** Loads a DAWG written by {@link #writeTo}; the buffer is typically a mapped asset. */
+    public static Trie read(ByteBuffer buffer) throws IOException {
+        IntBuffer ints = buffer.asIntBuffer();
+        if (ints.remaining() < HEADER_INTS || ints.get() != MAGIC) throw new IOException("Not a DAWG file");
+        int version = ints.get();
+        if (version != FORMAT_VERSION) throw new IOException("Unsupported DAWG version " + version);
+
+        Trie trie = new Trie();
+        trie.wordCount = ints.get();
+        trie.trieNodeCount = ints.get();
+        int nodes = ints.get();
+        int edges = ints.get();
+        trie.root = ints.get();
+        if (ints.remaining() < 2L * nodes + edges) throw new IOException("Truncated DAWG file");
+
+        trie.nodeMask = new int[nodes];
+        trie.nodeEdge = new int[nodes];
+        trie.edgeChild = new int[edges];
+        ints.get(trie.nodeMask);
+        ints.get(trie.nodeEdge);
+        ints.get(trie.edgeChild);
+        return trie;
+    }
+
+    // --- BUILD ---
+
+    /** Minimizes pending inserts into the DAWG arrays. Cheap no-op when nothing is staged. */
+    public synchronized void freeze() {
+        if (sLetter == null) return;
+        trieNodeCount = sCount;
+
+        int[] outMask = new int[sCount];
+        int[] outEdge = new int[sCount];
+        int[] outChild = new int[Math.max(1, sCount - 1)];
+        int[] counts = new int[2]; // nodes, edges
+        Map<String, Integer> registry = new HashMap<>();
+        int[] canonical = new int[sCount];
+
+        int rootId = minimize(0, canonical, registry, outMask, outEdge, outChild, counts);
+
+        nodeMask = Arrays.copyOf(outMask, counts[0]);
+        nodeEdge = Arrays.copyOf(outEdge, counts[0]);
+        edgeChild = Arrays.copyOf(outChild, counts[1]);
+        root = rootId;
+
+        sLetter = null;
+        sFirstChild = null;
+        sNext = null;
+        sTerminal = null;
+        sCount = 0;
+    }
+
+    private int minimize(int node, int[] canonical, Map<String, Integer> registry,
+                         int[] outMask, int[] outEdge, int[] outChild, int[] counts) {
+        int mask = sTerminal[node] ? TERMINAL : 0;
+        for (int c = sFirstChild[node]; c != -1; c = sNext[c]) {
+            canonical[c] = minimize(c, canonical, registry, outMask, outEdge, outChild, counts);
+            mask |= 1 << sLetter[c];
+        }
+
+        // Signature: mask followed by canonical child ids in letter order
+        StringBuilder key = new StringBuilder(2 + 2 * Integer.bitCount(mask & LETTER_MASK));
+        key.append((char) (mask >>> 16)).append((char) mask);
+        for (int letter = 0; letter < 26; letter++) {
+            if ((mask & (1 << letter)) == 0) continue;
+            int id = canonical[stagingChild(node, letter)];
+            key.append((char) (id >>> 16)).append((char) id);
+        }
+        String signature = key.toString();
+        Integer existing = registry.get(signature);
+        if (existing != null) return existing;
+
+        int id = counts[0]++;
+        outMask[id] = mask;
+        outEdge[id] = counts[1];
+        for (int letter = 0; letter < 26; letter++) {
+            if ((mask & (1 << letter)) == 0) continue;
+            outChild[counts[1]++] = canonical[stagingChild(node, letter)];
+        }
+        registry.put(signature, id);
+        return id;
+    }
+
+    private int stagingChild(int node, int letter) {
+        int c = sFirstChild[node];
+        while (sLetter[c] != letter) c = sNext[c];
+        return c;
+    }
+
+    private int newStagingNode(byte letter) {
+        if (sCount == sLetter.length) {
+            int size = sLetter.length * 2;
+            sLetter = Arrays.copyOf(sLetter, size);
+            sFirstChild = Arrays.copyOf(sFirstChild, size);
+            sNext = Arrays.copyOf(sNext, size);
+            sTerminal = Arrays.copyOf(sTerminal, size);
+        }
+        int n = sCount++;
+        sLetter[n] = letter;
+        sFirstChild[n] = -1;
+        sNext[n] = -1;
+        sTerminal[n] = false;
+        return n;
+    }
+
+    // Re-expands the frozen DAWG into a staging trie so more words can be inserted
+    private void thaw() {
+        sLetter = new byte[1024];
+        sFirstChild = new int[1024];
+        sNext = new int[1024];
+        sTerminal = new boolean[1024];
+        sCount = 0;
+        newStagingNode((byte) 0);
+        if (wordCount > 0) expand(root, 0);
+    }
+
+    private void expand(int node, int staged) {
+        int mask = nodeMask[node];
+        sTerminal[staged] = (mask & TERMINAL) != 0;
+        int edge = nodeEdge[node];
+        for (int letter = 0; letter < 26; letter++) {
+            if ((mask & (1 << letter)) == 0) continue;
+            int child = newStagingNode((byte) letter);
+            sNext[child] = sFirstChild[staged];
+            sFirstChild[staged] = child;
+            expand(edgeChild[edge++], child);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.wordscapes.solver;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Commonness rank per word, from a list ordered most frequent first (one word per
+ * line; anything after the first whitespace, such as a count, is ignored).
+ */
+public class WordFrequency {
+    public static final int UNRANKED = Integer.MAX_VALUE;
+
+    private final Map<String, Integer> ranks = new HashMap<>();
+
+    public static WordFrequency read(BufferedReader reader) throws IOException {
+        WordFrequency frequency = new WordFrequency();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            int space = 0;
+            while (space < line.length() && !Character.isWhitespace(line.charAt(space))) space++;
+            String word = line.substring(0, space).toUpperCase(Locale.ROOT);
+            if (!frequency.ranks.containsKey(word)) frequency.ranks.put(word, frequency.ranks.size());
+        }
+        return frequency;
+    }
+
+    /** 0 for the most common word, {@link #UNRANKED} for words not in the list. */
+    public int rank(String word) {
+        Integer rank = ranks.get(word);
+        return rank != null ? rank : UNRANKED;
+    }
+
+    public int size() {
+        return ranks.size();
+    }
+}
@@ -0,0 +1,55 @@
+package com.wordscapes.solver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Picks and orders the words worth swiping for a level: only lengths that still
+ * have open crossword slots, most common words first (crossword answers are
+ * drawn from everyday words; rare ones usually only count as bonus words).
+ */
+public class WordScheduler {
+    private final WordFrequency frequency;
+
+    /** @param frequency may be null, in which case the solver's order is kept */
+    public WordScheduler(WordFrequency frequency) {
+        this.frequency = frequency;
+    }
+
+    /**
+     * @param openByLength open slot count indexed by word length, or null when
+     *                     the grid is unknown and every length is allowed
+     */
+    public List<String> schedule(List<String> words, int[] openByLength) {
+        List<String> scheduled = new ArrayList<>(words.size());
+        for (String w : words) {
+            if (isOpen(openByLength, w.length())) scheduled.add(w);
+        }
+        if (frequency != null) {
+            // Stable sort: ties (e.g. unranked words) keep the longest-first solve order
+            Collections.sort(scheduled, (a, b) -> Integer.compare(frequency.rank(a), frequency.rank(b)));
+        }
+        return scheduled;
+    }
+
+    /**
+     * Same filter for words of an uncertain wheel; combined confidence stays the
+     * primary order and frequency only breaks ties between equally likely readings.
+     */
+    public List<Hypothesis> scheduleHypotheses(List<Hypothesis> ranked, int[] openByLength) {
+        List<Hypothesis> scheduled = new ArrayList<>(ranked.size());
+        for (Hypothesis h : ranked) {
+            if (isOpen(openByLength, h.word.length())) scheduled.add(h);
+        }
+        Collections.sort(scheduled, (a, b) -> {
+            if (a.confidence != b.confidence) return Float.compare(b.confidence, a.confidence);
+            return frequency != null ? Integer.compare(frequency.rank(a.word), frequency.rank(b.word)) : 0;
+        });
+        return scheduled;
+    }
+
+    public static boolean isOpen(int[] openByLength, int length) {
+        return openByLength == null || (length < openByLength.length && openByLength[length] > 0);
+    }
+}
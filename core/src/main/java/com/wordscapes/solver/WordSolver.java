@@ -0,0 +1,42 @@
+package com.wordscapes.solver;
+
+import java.util.List;
+
+/**
+ * Answers "which dictionary words can be spelled from these wheel letters".
+ * The engine is picked once, when the solver is built from the loaded dictionary.
+ */
+public interface WordSolver {
+
+    enum Engine {
+        /** DFS over the DAWG with a letter-count vector; cost grows with prefix paths. */
+        DAWG,
+        /** Sorted-letter hash index probed once per sub-multiset; cost grows with 2^wheel size. */
+        ANAGRAM_INDEX
+    }
+
+    /** Words of minLength..maxLength letters, each once, longest first, at most limit of them. */
+    List<String> solve(String letters, int minLength, int maxLength, int limit);
+
+    /**
+     * Words on a wheel whose slots may each read as several letters, found in one
+     * traversal over every reading at least minConfidence likely; most confident first.
+     */
+    List<Hypothesis> solveHypotheses(char[][] candidates, float[][] confidences,
+                                     int minLength, int maxLength, float minConfidence, int limit);
+
+    int wordCount();
+
+    /** Approximate heap bytes held by the engine's index. */
+    long memoryFootprint();
+
+    static WordSolver create(Engine engine, Trie dictionary) {
+        switch (engine) {
+            case ANAGRAM_INDEX:
+                return new AnagramIndex(dictionary);
+            case DAWG:
+            default:
+                return dictionary;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.wordscapes.swipe;
+
+/**
+ * Walks {@link SwipeProfile#LADDER} from slow to fast while words are being swiped.
+ * A trial profile must be accepted a number of times in a row to become the reliable
+ * one. When a trial stroke is not accepted, the same word is swiped again with the
+ * reliable profile: if that one is accepted the trial profile was too fast and
+ * calibration ends; if not, the word simply wasn't on the board and the stroke is
+ * ignored.
+ */
+public final class SwipeCalibrator {
+    private final SwipeProfile[] ladder;
+    private final int trialsNeeded;
+    private int reliable;
+    private int trial;
+    private int accepted;
+    private boolean confirming;
+    private boolean done;
+
+    public SwipeCalibrator(SwipeProfile[] ladder, int trialsNeeded) {
+        this.ladder = ladder;
+        this.trialsNeeded = Math.max(1, trialsNeeded);
+        this.trial = ladder.length > 1 ? 1 : 0;
+        this.done = ladder.length < 2;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /** Fastest profile proven so far. */
+    public SwipeProfile reliableProfile() {
+        return ladder[reliable];
+    }
+
+    /** Profile for the next stroke; the reliable one while a rejection is being confirmed. */
+    public SwipeProfile nextProfile() {
+        return done || confirming ? ladder[reliable] : ladder[trial];
+    }
+
+    /** True when the last word should be swiped again before moving on. */
+    public boolean needsRepeat() {
+        return confirming;
+    }
+
+    /** Reports whether the board changed after the stroke made with {@link #nextProfile()}. */
+    public void record(boolean wasAccepted) {
+        if (done) return;
+        if (confirming) {
+            confirming = false;
+            // Only the trial profile failed: settle on the last reliable one
+            if (wasAccepted) done = true;
+            return;
+        }
+        if (!wasAccepted) {
+            confirming = true;
+            return;
+        }
+        if (++accepted < trialsNeeded) return;
+        reliable = trial;
+        accepted = 0;
+        if (++trial == ladder.length) done = true;
+    }
+
+    public String describe() {
+        return (done ? "calibrated " : "trying " + ladder[trial].name + " " + accepted + "/" + trialsNeeded + ", ")
+                + "reliable " + ladder[reliable];
+    }
+}
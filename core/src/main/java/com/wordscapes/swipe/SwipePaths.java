@@ -0,0 +1,43 @@
+package com.wordscapes.swipe;
+
+import java.util.Arrays;
+
+/**
+ * The swipe paths of one solve packed into a single buffer: the x, y pairs of every
+ * path back to back, and the first point of each. Sized once from the word count and
+ * wheel size, so adding a word copies its points without allocating.
+ */
+public final class SwipePaths {
+    private final float[] coords;
+    private final int[] starts; // first point of each path, then the end of the last
+    private int count;
+
+    /** Room for maxPaths paths of at most maxPoints points each. */
+    public SwipePaths(int maxPaths, int maxPoints) {
+        coords = new float[2 * maxPaths * maxPoints];
+        starts = new int[maxPaths + 1];
+    }
+
+    /** Appends the first points of a path buffer, as written by {@link WheelGeometry#path}. */
+    public void add(float[] buffer, int points) {
+        if (count == starts.length - 1) throw new IllegalStateException("No room for path " + count);
+        int start = starts[count];
+        System.arraycopy(buffer, 0, coords, 2 * start, 2 * points);
+        starts[++count] = start + points;
+    }
+
+    public int size() { return count; }
+
+    public boolean isEmpty() { return count == 0; }
+
+    public int points(int path) { return starts[path + 1] - starts[path]; }
+
+    public float x(int path, int i) { return coords[2 * (starts[path] + i)]; }
+
+    public float y(int path, int i) { return coords[2 * (starts[path] + i) + 1]; }
+
+    /** Copy of one path as x, y pairs, e.g. for a scan record. */
+    public float[] toArray(int path) {
+        return Arrays.copyOfRange(coords, 2 * starts[path], 2 * starts[path + 1]);
+    }
+}
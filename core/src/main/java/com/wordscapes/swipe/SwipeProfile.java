@@ -0,0 +1,72 @@
+package com.wordscapes.swipe;
+
+/**
+ * Swipe timing: a fixed base, a cost per segment and per pixel of path, and an
+ * optional pause on each letter after the first. DEFAULT reproduces the original
+ * max(200, letters * 100) ms stroke.
+ */
+public final class SwipeProfile {
+    public static final SwipeProfile DEFAULT = new SwipeProfile("default", 100, 100, 0f, 0);
+
+    /** Tried in order during calibration, slowest first. */
+    public static final SwipeProfile[] LADDER = {
+            DEFAULT,
+            new SwipeProfile("path-80", 80, 40, 0.15f, 0),
+            new SwipeProfile("path-60", 60, 25, 0.12f, 0),
+            new SwipeProfile("dwell-40", 40, 15, 0.10f, 15),
+            new SwipeProfile("dwell-30", 30, 10, 0.08f, 10),
+            new SwipeProfile("dwell-20", 20, 5, 0.06f, 10),
+            new SwipeProfile("dwell-16", 16, 0, 0.05f, 8),
+    };
+
+    public final String name;
+    public final int baseMs;
+    public final int segmentMs;
+    public final float pixelMs;
+    /** Time held on each letter the path turns at; 0 draws the word as one stroke. */
+    public final int cornerDwellMs;
+
+    public SwipeProfile(String name, int baseMs, int segmentMs, float pixelMs, int cornerDwellMs) {
+        this.name = name;
+        this.baseMs = Math.max(0, baseMs);
+        this.segmentMs = Math.max(0, segmentMs);
+        this.pixelMs = Math.max(0f, pixelMs);
+        this.cornerDwellMs = Math.max(0, cornerDwellMs);
+    }
+
+    /** Movement time for one path, not counting corner dwell. */
+    public long strokeMs(SwipePaths paths, int path) {
+        int segments = paths.points(path) - 1;
+        return Math.max(1, baseMs + (long) segmentMs * segments + Math.round(pixelMs * length(paths, path)));
+    }
+
+    /** Share of the movement time for segment i, proportional to its length. */
+    public long segmentMs(SwipePaths paths, int path, int i) {
+        float total = length(paths, path);
+        if (total <= 0f) return Math.max(1, strokeMs(paths, path) / (paths.points(path) - 1));
+        return Math.max(1, Math.round(strokeMs(paths, path) * distance(paths, path, i) / total));
+    }
+
+    /** Whole gesture time including dwell. */
+    public long totalMs(SwipePaths paths, int path) {
+        return strokeMs(paths, path) + (long) cornerDwellMs * Math.max(0, paths.points(path) - 2);
+    }
+
+    public static float length(SwipePaths paths, int path) {
+        float sum = 0f;
+        for (int i = 0; i + 1 < paths.points(path); i++) sum += distance(paths, path, i);
+        return sum;
+    }
+
+    // Length of segment i, from point i to point i + 1
+    private static float distance(SwipePaths paths, int path, int i) {
+        float dx = paths.x(path, i + 1) - paths.x(path, i);
+        float dy = paths.y(path, i + 1) - paths.y(path, i);
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Override
+    public String toString() {
+        return name + "(" + baseMs + " + " + segmentMs + "/seg + " + pixelMs + "/px, dwell " + cornerDwellMs + ")";
+    }
+}
@@ -0,0 +1,151 @@
+package com.wordscapes.swipe;
+
+import java.util.Arrays;
+
+/**
+ * The letter wheel as a model built once per reading: where each slot is, which
+ * slots hold each letter (duplicates chained in slot order), and the circle the
+ * letters sit on. Paths are written into caller buffers without allocating.
+ *
+ * When the slots fit a circle well, their centers are snapped onto it, which
+ * removes the jitter of individual OCR boxes.
+ */
+public final class WheelGeometry {
+    /** Largest RMS distance from the fitted circle, relative to its radius, that still counts as a ring. */
+    private static final float MAX_FIT_ERROR = 0.15f;
+
+    private final char[] letters;
+    private final float[] x, y;
+    private final int[] firstSlot = new int[26];
+    private final int[] nextSlot;
+    private final float centerX, centerY, radius;
+    private final boolean snapped;
+
+    /**
+     * @param letters upper-case letter per slot (at most 32 slots)
+     * @param snapToRing move slot centers onto the fitted circle when the fit is good
+     */
+    public WheelGeometry(char[] letters, float[] slotX, float[] slotY, boolean snapToRing) {
+        int n = Math.min(letters.length, 32);
+        this.letters = Arrays.copyOf(letters, n);
+        this.x = Arrays.copyOf(slotX, n);
+        this.y = Arrays.copyOf(slotY, n);
+        this.nextSlot = new int[n];
+
+        Arrays.fill(firstSlot, -1);
+        for (int i = n - 1; i >= 0; i--) {
+            int letter = letters[i] - 'A';
+            if (letter < 0 || letter >= 26) {
+                nextSlot[i] = -1;
+                continue;
+            }
+            nextSlot[i] = firstSlot[letter];
+            firstSlot[letter] = i;
+        }
+
+        float[] circle = fitCircle(x, y, n);
+        centerX = circle[0];
+        centerY = circle[1];
+        radius = circle[2];
+        snapped = snapToRing && n >= 3 && radius > 0 && circle[3] <= MAX_FIT_ERROR * radius;
+        if (snapped) {
+            for (int i = 0; i < n; i++) {
+                float dx = x[i] - centerX, dy = y[i] - centerY;
+                float d = (float) Math.sqrt(dx * dx + dy * dy);
+                if (d == 0f) continue;
+                x[i] = centerX + dx * radius / d;
+                y[i] = centerY + dy * radius / d;
+            }
+        }
+    }
+
+    public int size() { return letters.length; }
+
+    public char letter(int slot) { return letters[slot]; }
+
+    public float x(int slot) { return x[slot]; }
+
+    public float y(int slot) { return y[slot]; }
+
+    public float centerX() { return centerX; }
+
+    public float centerY() { return centerY; }
+
+    public float radius() { return radius; }
+
+    public boolean isSnapped() { return snapped; }
+
+    /**
+     * Writes the path for word as x, y pairs into out, using each slot at most once
+     * and duplicate letters in slot order.
+     *
+     * @return number of points, or -1 if the wheel cannot spell the word or out is too small
+     */
+    public int path(CharSequence word, float[] out) {
+        int n = word.length();
+        if (out.length < 2 * n) return -1;
+        int used = 0;
+        for (int i = 0; i < n; i++) {
+            int letter = word.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) return -1;
+            int slot = firstSlot[letter];
+            while (slot >= 0 && (used & (1 << slot)) != 0) slot = nextSlot[slot];
+            if (slot < 0) return -1;
+            used |= 1 << slot;
+            out[2 * i] = x[slot];
+            out[2 * i + 1] = y[slot];
+        }
+        return n;
+    }
+
+    /** Writes the path through the given slots, in order, into out. */
+    public int path(int[] slots, float[] out) {
+        if (out.length < 2 * slots.length) return -1;
+        for (int i = 0; i < slots.length; i++) {
+            out[2 * i] = x[slots[i]];
+            out[2 * i + 1] = y[slots[i]];
+        }
+        return slots.length;
+    }
+
+    // Least-squares (Kasa) circle through the points: {cx, cy, r, rms distance from the circle}
+    static float[] fitCircle(float[] x, float[] y, int n) {
+        if (n == 0) return new float[] { 0f, 0f, 0f, 0f };
+        double mx = 0, my = 0;
+        for (int i = 0; i < n; i++) {
+            mx += x[i];
+            my += y[i];
+        }
+        mx /= n;
+        my /= n;
+
+        double suu = 0, svv = 0, suv = 0, suuu = 0, svvv = 0, suvv = 0, svuu = 0;
+        for (int i = 0; i < n; i++) {
+            double u = x[i] - mx, v = y[i] - my;
+            suu += u * u;
+            svv += v * v;
+            suv += u * v;
+            suuu += u * u * u;
+            svvv += v * v * v;
+            suvv += u * v * v;
+            svuu += v * u * u;
+        }
+        double det = suu * svv - suv * suv;
+        double cx = mx, cy = my;
+        if (n >= 3 && Math.abs(det) > 1e-6) {
+            double bu = 0.5 * (suuu + suvv), bv = 0.5 * (svvv + svuu);
+            cx = mx + (bu * svv - bv * suv) / det;
+            cy = my + (bv * suu - bu * suv) / det;
+        }
+
+        double r = 0;
+        for (int i = 0; i < n; i++) r += Math.hypot(x[i] - cx, y[i] - cy);
+        r /= n;
+        double err = 0;
+        for (int i = 0; i < n; i++) {
+            double d = Math.hypot(x[i] - cx, y[i] - cy) - r;
+            err += d * d;
+        }
+        return new float[] { (float) cx, (float) cy, (float) r, (float) Math.sqrt(err / n) };
+    }
+}
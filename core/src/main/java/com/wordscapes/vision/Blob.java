@@ -0,0 +1,25 @@
+package com.wordscapes.vision;
+
+/** Bounding box and pixel count of one connected component, labelled id in its {@link Components} pass. */
+public final class Blob {
+    public final int id;
+    public int minX, minY, maxX, maxY, area;
+
+    Blob(int id, int x, int y) {
+        this.id = id;
+        minX = maxX = x;
+        minY = maxY = y;
+    }
+
+    public int width() { return maxX - minX + 1; }
+
+    public int height() { return maxY - minY + 1; }
+
+    public float centerX() { return (minX + maxX + 1) / 2f; }
+
+    public float centerY() { return (minY + maxY + 1) / 2f; }
+
+    public boolean contains(float x, float y) {
+        return x >= minX && x <= maxX + 1 && y >= minY && y <= maxY + 1;
+    }
+}
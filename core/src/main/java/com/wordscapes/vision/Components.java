@@ -0,0 +1,67 @@
+package com.wordscapes.vision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 8-connected component labelling of the black (0) pixels of a binarized frame.
+ * Label and stack arrays are kept between calls; not thread-safe.
+ */
+public class Components {
+    private int[] labels = new int[0];
+    private int[] stack = new int[0];
+    private int width;
+
+    /** Components whose height is within [minHeight, maxHeight], in discovery (row-major) order. */
+    public List<Blob> find(LumaFrame binary, int minHeight, int maxHeight) {
+        int w = binary.width, h = binary.height, n = w * h;
+        if (labels.length < n) {
+            labels = new int[n];
+            stack = new int[n];
+        }
+        Arrays.fill(labels, 0, n, 0);
+        width = w;
+        byte[] px = binary.pixels;
+
+        List<Blob> blobs = new ArrayList<>();
+        int next = 1;
+        for (int start = 0; start < n; start++) {
+            if (px[start] != 0 || labels[start] != 0) continue;
+            Blob blob = new Blob(next, start % w, start / w);
+            int top = 0;
+            stack[top++] = start;
+            labels[start] = next;
+            while (top > 0) {
+                int p = stack[--top];
+                int x = p % w, y = p / w;
+                blob.area++;
+                if (x < blob.minX) blob.minX = x;
+                if (x > blob.maxX) blob.maxX = x;
+                if (y < blob.minY) blob.minY = y;
+                if (y > blob.maxY) blob.maxY = y;
+                for (int dy = -1; dy <= 1; dy++) {
+                    int ny = y + dy;
+                    if (ny < 0 || ny >= h) continue;
+                    for (int dx = -1; dx <= 1; dx++) {
+                        int nx = x + dx;
+                        if (nx < 0 || nx >= w) continue;
+                        int q = ny * w + nx;
+                        if (px[q] == 0 && labels[q] == 0) {
+                            labels[q] = next;
+                            stack[top++] = q;
+                        }
+                    }
+                }
+            }
+            next++;
+            if (blob.height() >= minHeight && blob.height() <= maxHeight) blobs.add(blob);
+        }
+        return blobs;
+    }
+
+    /** True if (x, y) belongs to blob in the last {@link #find} pass. */
+    public boolean isMember(Blob blob, int x, int y) {
+        return labels[y * width + x] == blob.id;
+    }
+}
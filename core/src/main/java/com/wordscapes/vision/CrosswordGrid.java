@@ -0,0 +1,174 @@
+package com.wordscapes.vision;
+
+/**
+ * Cells and word slots of the crossword above the wheel, with which cells are
+ * filled. Cells are found once while empty (see {@link CrosswordReader}); after
+ * that each cell is judged filled when it no longer looks like its empty self.
+ */
+public final class CrosswordGrid {
+    // A filled tile is darker (colored) or carries a letter (contrast)
+    private static final int FILLED_MEAN_DELTA = 30;
+    private static final int FILLED_CONTRAST_DELTA = 25;
+
+    final int[] left, top, size;
+    final int[] emptyMean, emptyContrast;
+    final boolean[] filled;
+    /** Cell indices of each across/down run of two or more cells. */
+    final int[][] slots;
+    private final int rows, cols;
+
+    CrosswordGrid(int[] left, int[] top, int[] size, int[][] slots, int rows, int cols) {
+        this.left = left;
+        this.top = top;
+        this.size = size;
+        this.slots = slots;
+        this.rows = rows;
+        this.cols = cols;
+        this.emptyMean = new int[left.length];
+        this.emptyContrast = new int[left.length];
+        this.filled = new boolean[left.length];
+    }
+
+    public int cellCount() {
+        return left.length;
+    }
+
+    public int slotCount() {
+        return slots.length;
+    }
+
+    public int filledCount() {
+        int n = 0;
+        for (boolean f : filled) if (f) n++;
+        return n;
+    }
+
+    public boolean isFilled(int cell) {
+        return filled[cell];
+    }
+
+    /**
+     * True when every cell lies in a slot and all slots join into one crossword. Tiles
+     * that were already filled when the grid was found are missed, which splits runs
+     * into shorter slots and usually leaves lone cells or detached pieces; slot lengths
+     * of a grid that is not well formed should not be trusted.
+     */
+    public boolean isWellFormed() {
+        int n = left.length;
+        if (n == 0 || slots.length == 0) return false;
+        int[] parent = new int[n];
+        for (int i = 0; i < n; i++) parent[i] = -1;
+        for (int[] slot : slots) {
+            for (int cell : slot) {
+                if (parent[cell] < 0) parent[cell] = cell;
+                union(parent, slot[0], cell);
+            }
+        }
+        int root = -1;
+        for (int i = 0; i < n; i++) {
+            if (parent[i] < 0) return false;
+            int r = find(parent, i);
+            if (root < 0) root = r;
+            else if (r != root) return false;
+        }
+        return true;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) i = parent[i] = parent[parent[i]];
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        parent[find(parent, a)] = find(parent, b);
+    }
+
+    /** Records the current look of every cell as its empty state. */
+    void calibrate(LumaFrame board) {
+        int[] stats = new int[2];
+        for (int i = 0; i < left.length; i++) {
+            sample(board, i, stats);
+            emptyMean[i] = stats[0];
+            emptyContrast[i] = stats[1];
+        }
+    }
+
+    /** Re-reads every cell from a board frame laid out like the one the grid was found in. */
+    public void update(LumaFrame board) {
+        int[] stats = new int[2];
+        for (int i = 0; i < left.length; i++) {
+            sample(board, i, stats);
+            filled[i] = emptyMean[i] - stats[0] > FILLED_MEAN_DELTA
+                    || stats[1] - emptyContrast[i] > FILLED_CONTRAST_DELTA;
+        }
+    }
+
+    /** Slots of the given length that still have an empty cell. */
+    public int openSlots(int length) {
+        int n = 0;
+        for (int[] slot : slots) {
+            if (slot.length == length && isOpen(slot)) n++;
+        }
+        return n;
+    }
+
+    /** Open slot counts indexed by word length. */
+    public int[] openSlotsByLength() {
+        int longest = 0;
+        for (int[] slot : slots) longest = Math.max(longest, slot.length);
+        int[] open = new int[longest + 1];
+        for (int[] slot : slots) {
+            if (isOpen(slot)) open[slot.length]++;
+        }
+        return open;
+    }
+
+    public boolean isFull() {
+        for (boolean f : filled) if (!f) return false;
+        return true;
+    }
+
+    private boolean isOpen(int[] slot) {
+        for (int cell : slot) {
+            if (!filled[cell]) return true;
+        }
+        return false;
+    }
+
+    // Mean and mean absolute deviation of the middle half of a cell
+    private void sample(LumaFrame board, int cell, int[] out) {
+        int inset = size[cell] / 4;
+        int x0 = Math.max(0, left[cell] + inset), x1 = Math.min(board.width, left[cell] + size[cell] - inset);
+        int y0 = Math.max(0, top[cell] + inset), y1 = Math.min(board.height, top[cell] + size[cell] - inset);
+        int sum = 0, count = 0;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) {
+                sum += board.get(x, y);
+                count++;
+            }
+        }
+        if (count == 0) {
+            out[0] = out[1] = 0;
+            return;
+        }
+        int mean = sum / count;
+        int dev = 0;
+        for (int y = y0; y < y1; y++) {
+            for (int x = x0; x < x1; x++) dev += Math.abs(board.get(x, y) - mean);
+        }
+        out[0] = mean;
+        out[1] = dev / count;
+    }
+
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(cellCount()).append(" cells, ").append(filledCount()).append(" filled, ")
+                .append(isWellFormed() ? "" : "not well formed, ")
+                .append(slotCount()).append(" slots (").append(rows).append('x').append(cols).append("), open by length:");
+        int[] open = openSlotsByLength();
+        for (int len = 2; len < open.length; len++) {
+            if (open[len] > 0) sb.append(' ').append(len).append('=').append(open[len]);
+        }
+        return sb.toString();
+    }
+}
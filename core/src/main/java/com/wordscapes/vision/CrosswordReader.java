@@ -0,0 +1,132 @@
+package com.wordscapes.vision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the crossword's tiles in a (sampled) board frame: bright, square, similar
+ * sized components snapped to a common lattice. Runs of neighbouring tiles become
+ * slots. Tiles that are already filled are not bright and are missed, so detection
+ * is meant for the start of a level; {@link CrosswordGrid#isWellFormed} tells when a
+ * read taken part-way through was split by filled tiles. Holds scratch space; not thread-safe.
+ */
+public class CrosswordReader {
+    private final Components components = new Components();
+    private final LumaFrame binary = new LumaFrame(2, 2);
+    private final int minLuma;
+
+    /** @param minLuma luma at or above which a pixel counts as empty-tile white */
+    public CrosswordReader(int minLuma) {
+        this.minLuma = minLuma;
+    }
+
+    /** The grid in board, with its current look as the empty state, or null if fewer than 3 tiles are found. */
+    public CrosswordGrid detect(LumaFrame board) {
+        binary.reshape(board.width, board.height);
+        int n = board.width * board.height;
+        for (int i = 0; i < n; i++) {
+            binary.pixels[i] = (byte) ((board.pixels[i] & 0xFF) >= minLuma ? 0 : 255);
+        }
+
+        List<Blob> tiles = new ArrayList<>();
+        for (Blob b : components.find(binary, 4, board.height / 3)) {
+            float aspect = b.width() / (float) b.height();
+            if (aspect < 0.75f || aspect > 1.33f) continue;
+            if (b.area < 0.6f * b.width() * b.height()) continue;
+            tiles.add(b);
+        }
+        if (tiles.size() < 3) return null;
+
+        int[] sizes = new int[tiles.size()];
+        for (int i = 0; i < sizes.length; i++) sizes[i] = Math.max(tiles.get(i).width(), tiles.get(i).height());
+        int size = median(sizes);
+        List<Blob> kept = new ArrayList<>();
+        for (Blob b : tiles) {
+            int s = Math.max(b.width(), b.height());
+            if (s >= 0.7f * size && s <= 1.3f * size) kept.add(b);
+        }
+        if (kept.size() < 3) return null;
+
+        float pitch = pitch(kept, size);
+        float originX = Float.MAX_VALUE, originY = Float.MAX_VALUE;
+        for (Blob b : kept) {
+            originX = Math.min(originX, b.centerX());
+            originY = Math.min(originY, b.centerY());
+        }
+        int rows = 0, cols = 0;
+        int[] row = new int[kept.size()], col = new int[kept.size()];
+        for (int i = 0; i < kept.size(); i++) {
+            row[i] = Math.round((kept.get(i).centerY() - originY) / pitch);
+            col[i] = Math.round((kept.get(i).centerX() - originX) / pitch);
+            rows = Math.max(rows, row[i] + 1);
+            cols = Math.max(cols, col[i] + 1);
+        }
+
+        int[] lattice = new int[rows * cols];
+        Arrays.fill(lattice, -1);
+        int cells = 0;
+        int[] left = new int[kept.size()], top = new int[kept.size()], cellSize = new int[kept.size()];
+        for (int i = 0; i < kept.size(); i++) {
+            int at = row[i] * cols + col[i];
+            if (lattice[at] >= 0) continue;
+            Blob b = kept.get(i);
+            lattice[at] = cells;
+            left[cells] = b.minX;
+            top[cells] = b.minY;
+            cellSize[cells] = Math.min(b.width(), b.height());
+            cells++;
+        }
+
+        List<int[]> slots = new ArrayList<>();
+        collectRuns(lattice, rows, cols, 1, cols, slots);
+        collectRuns(lattice, cols, rows, cols, 1, slots);
+
+        CrosswordGrid grid = new CrosswordGrid(Arrays.copyOf(left, cells), Arrays.copyOf(top, cells),
+                Arrays.copyOf(cellSize, cells), slots.toArray(new int[0][]), rows, cols);
+        grid.calibrate(board);
+        return grid;
+    }
+
+    // Walks lines of the lattice (rows, or columns) and keeps runs of two or more cells
+    private static void collectRuns(int[] lattice, int lines, int length, int step, int lineStep, List<int[]> out) {
+        for (int line = 0; line < lines; line++) {
+            int start = -1;
+            for (int k = 0; k <= length; k++) {
+                boolean cell = k < length && lattice[line * lineStep + k * step] >= 0;
+                if (cell && start < 0) start = k;
+                if (!cell && start >= 0) {
+                    if (k - start >= 2) {
+                        int[] run = new int[k - start];
+                        for (int j = 0; j < run.length; j++) run[j] = lattice[line * lineStep + (start + j) * step];
+                        out.add(run);
+                    }
+                    start = -1;
+                }
+            }
+        }
+    }
+
+    // Typical center distance between a tile and its nearest row or column neighbour
+    private static float pitch(List<Blob> tiles, int size) {
+        int[] nearest = new int[tiles.size()];
+        int count = 0;
+        for (Blob a : tiles) {
+            float best = Float.MAX_VALUE;
+            for (Blob b : tiles) {
+                if (a == b) continue;
+                float dx = Math.abs(a.centerX() - b.centerX()), dy = Math.abs(a.centerY() - b.centerY());
+                if (dy < size / 2f) best = Math.min(best, dx);
+                if (dx < size / 2f) best = Math.min(best, dy);
+            }
+            if (best < 3f * size) nearest[count++] = Math.round(best);
+        }
+        return count > 0 ? Math.max(size, median(Arrays.copyOf(nearest, count))) : size * 1.1f;
+    }
+
+    private static int median(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,86 @@
+package com.wordscapes.vision;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 64-bit difference hash (dHash) of a frame region: the region is reduced to a
+ * 9x8 grid of mean brightness and each bit records whether a cell is brighter
+ * than its right neighbour. Robust to noise and compression, cheap to compare.
+ */
+public final class FrameHash {
+    private static final int COLS = 9, ROWS = 8;
+    // Pixels sampled per cell edge; the hash needs the cell mean, not every pixel
+    private static final int SAMPLES = 4;
+
+    private FrameHash() {}
+
+    /** Hash of a w x h window of an RGBA plane, reading only SAMPLES^2 pixels per cell. */
+    public static long ofRgba(ByteBuffer rgba, int rowStride, int pixelStride, int x, int y, int w, int h) {
+        int[] means = new int[COLS * ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                int sum = 0;
+                for (int sy = 0; sy < SAMPLES; sy++) {
+                    int py = y + (row * SAMPLES + sy) * h / (ROWS * SAMPLES);
+                    for (int sx = 0; sx < SAMPLES; sx++) {
+                        int px = x + (col * SAMPLES + sx) * w / (COLS * SAMPLES);
+                        int p = py * rowStride + px * pixelStride;
+                        sum += (rgba.get(p) & 0xFF) + 2 * (rgba.get(p + 1) & 0xFF) + (rgba.get(p + 2) & 0xFF);
+                    }
+                }
+                means[row * COLS + col] = sum;
+            }
+        }
+        return pack(means);
+    }
+
+    public static long of(LumaFrame frame) {
+        int[] means = new int[COLS * ROWS];
+        for (int row = 0; row < ROWS; row++) {
+            int y0 = row * frame.height / ROWS, y1 = (row + 1) * frame.height / ROWS;
+            for (int col = 0; col < COLS; col++) {
+                int x0 = col * frame.width / COLS, x1 = (col + 1) * frame.width / COLS;
+                int sum = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int x = x0; x < x1; x++) sum += frame.pixels[y * frame.width + x] & 0xFF;
+                }
+                means[row * COLS + col] = sum / Math.max(1, (x1 - x0) * (y1 - y0));
+            }
+        }
+        return pack(means);
+    }
+
+    private static long pack(int[] means) {
+        long hash = 0;
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS - 1; col++) {
+                hash <<= 1;
+                if (means[row * COLS + col] > means[row * COLS + col + 1]) hash |= 1;
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Content hash for exact-match caching: FNV-1a over a 64x64 point sample of the
+     * frame, quantized to 32 gray levels. Unlike the dHash, any changed letter shape
+     * changes it; identical screen captures hash identically.
+     */
+    public static long content(LumaFrame frame) {
+        long hash = 0xcbf29ce484222325L;
+        for (int row = 0; row < 64; row++) {
+            int y = (2 * row + 1) * frame.height / 128;
+            for (int col = 0; col < 64; col++) {
+                int x = (2 * col + 1) * frame.width / 128;
+                hash ^= (frame.pixels[y * frame.width + x] & 0xFF) >> 3;
+                hash *= 0x100000001b3L;
+            }
+        }
+        return hash ^ ((long) frame.width << 48) ^ ((long) frame.height << 32);
+    }
+
+    /** Number of differing bits, 0..64. */
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+}
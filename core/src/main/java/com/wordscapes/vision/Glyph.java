@@ -0,0 +1,23 @@
+package com.wordscapes.vision;
+
+/** One classified letter: best guesses with scores (best first) and its box in frame pixels. */
+public final class Glyph {
+    public final Blob blob;
+    public final char[] candidates;
+    public final float[] scores;
+
+    Glyph(Blob blob, char[] candidates, float[] scores) {
+        this.blob = blob;
+        this.candidates = candidates;
+        this.scores = scores;
+    }
+
+    public char letter() { return candidates[0]; }
+
+    public float confidence() { return scores[0]; }
+
+    /** Gap between the best and second-best template score. */
+    public float margin() {
+        return scores.length > 1 ? scores[0] - scores[1] : scores[0];
+    }
+}
@@ -0,0 +1,186 @@
+package com.wordscapes.vision;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Nearest-template letter classifier for the wheel's single font.
+ *
+ * Each glyph blob is resampled into a {@link #GRID}x{@link #GRID} occupancy map,
+ * centered with its aspect ratio kept, and scored against one averaged template
+ * per letter (1 minus normalized L1 distance). Templates are {@link #seed seeded}
+ * by the caller and refined with {@link #learn} from letters another recognizer
+ * confirmed. A seed only ranks candidates; {@link #isConfirmed} tells whether a
+ * letter's template has been confirmed and can be trusted without that recognizer.
+ */
+public class GlyphClassifier {
+    public static final int GRID = 16;
+    private static final int CELLS = GRID * GRID;
+    private static final int MAX_WEIGHT = 16;
+    private static final int FORMAT_VERSION = 2;
+    static final int TOP_K = 3;
+
+    private final float[][] templates = new float[26][];
+    private final int[] weights = new int[26];
+    private final boolean[] confirmed = new boolean[26];
+    private final Components components = new Components();
+
+    public boolean hasTemplates() {
+        for (float[] t : templates) if (t != null) return true;
+        return false;
+    }
+
+    /**
+     * Letter-sized components of a binarized ring frame (6-30% of its height), with
+     * their occupancy grids computed right away so the frame can be released.
+     *
+     * @param offsetX screen x of the frame's origin; offsetY likewise
+     * @param scale screen pixels per frame pixel
+     */
+    public RingGlyphs segment(LumaFrame binary, int offsetX, int offsetY, int scale) {
+        List<Blob> blobs = components.find(binary, binary.height * 6 / 100, binary.height * 30 / 100);
+        List<Blob> letters = new ArrayList<>(blobs.size());
+        for (Blob b : blobs) {
+            // Wider than tall by more than half is ring debris, not a letter
+            if (b.width() <= b.height() * 3 / 2) letters.add(b);
+        }
+        float[][] features = new float[letters.size()][];
+        for (int i = 0; i < features.length; i++) features[i] = features(binary, letters.get(i));
+        return new RingGlyphs(letters, features, offsetX, offsetY, scale);
+    }
+
+    public List<Glyph> classify(RingGlyphs ring) {
+        List<Glyph> glyphs = new ArrayList<>(ring.size());
+        for (int i = 0; i < ring.size(); i++) glyphs.add(classify(ring.blob(i), ring.features(i)));
+        return glyphs;
+    }
+
+    public Glyph classify(Blob blob, float[] features) {
+        char[] best = new char[TOP_K];
+        float[] scores = new float[TOP_K];
+        Arrays.fill(scores, -1f);
+        for (int letter = 0; letter < 26; letter++) {
+            float[] t = templates[letter];
+            if (t == null) continue;
+            float score = similarity(features, t);
+            for (int k = 0; k < TOP_K; k++) {
+                if (score <= scores[k]) continue;
+                System.arraycopy(scores, k, scores, k + 1, TOP_K - k - 1);
+                System.arraycopy(best, k, best, k + 1, TOP_K - k - 1);
+                scores[k] = score;
+                best[k] = (char) ('A' + letter);
+                break;
+            }
+        }
+        int n = 0;
+        while (n < TOP_K && scores[n] >= 0) n++;
+        return new Glyph(blob, Arrays.copyOf(best, Math.max(1, n)), Arrays.copyOf(scores, Math.max(1, n)));
+    }
+
+    // Blob must come from the latest components pass over binary
+    private float[] features(LumaFrame binary, Blob blob) {
+        float[] out = new float[CELLS];
+        normalize(binary, blob, out);
+        return out;
+    }
+
+    /** Installs a provisional template for letter, e.g. rendered in a stand-in font, unless it already has one. */
+    public void seed(char letter, float[] features) {
+        int index = Character.toUpperCase(letter) - 'A';
+        if (index < 0 || index >= 26 || templates[index] != null) return;
+        templates[index] = features.clone();
+        weights[index] = 1;
+    }
+
+    /** True once letter's template has been learned from at least one confirmed example. */
+    public boolean isConfirmed(char letter) {
+        int index = Character.toUpperCase(letter) - 'A';
+        return index >= 0 && index < 26 && confirmed[index];
+    }
+
+    /**
+     * Folds a confirmed example of letter (an occupancy grid from {@link RingGlyphs}) into
+     * its template. The first one replaces a seed outright.
+     */
+    public void learn(char letter, float[] features) {
+        int index = Character.toUpperCase(letter) - 'A';
+        if (index < 0 || index >= 26) return;
+        float[] t = templates[index];
+        if (t == null || !confirmed[index]) {
+            templates[index] = features.clone();
+            weights[index] = 1;
+            confirmed[index] = true;
+            return;
+        }
+        int w = Math.min(weights[index], MAX_WEIGHT - 1);
+        for (int i = 0; i < CELLS; i++) t[i] = (t[i] * w + features[i]) / (w + 1);
+        weights[index] = w + 1;
+    }
+
+    // Area-sampled occupancy of the blob's own pixels, uniformly scaled to fit the grid
+    private void normalize(LumaFrame binary, Blob blob, float[] out) {
+        Arrays.fill(out, 0f);
+        float scale = (float) Math.max(blob.width(), blob.height()) / GRID;
+        float offsetX = (GRID - blob.width() / scale) / 2f;
+        float offsetY = (GRID - blob.height() / scale) / 2f;
+        float cellArea = scale * scale;
+        for (int y = blob.minY; y <= blob.maxY; y++) {
+            int gy = (int) ((y - blob.minY) / scale + offsetY);
+            if (gy >= GRID) gy = GRID - 1;
+            for (int x = blob.minX; x <= blob.maxX; x++) {
+                if (binary.pixels[y * binary.width + x] != 0 || !components.isMember(blob, x, y)) continue;
+                int gx = (int) ((x - blob.minX) / scale + offsetX);
+                if (gx >= GRID) gx = GRID - 1;
+                out[gy * GRID + gx] += 1f / cellArea;
+            }
+        }
+        for (int i = 0; i < CELLS; i++) if (out[i] > 1f) out[i] = 1f;
+    }
+
+    /** 1 minus normalized L1 distance between two occupancy grids; 1 is identical. */
+    public static float similarity(float[] a, float[] b) {
+        float diff = 0, mass = 0;
+        for (int i = 0; i < CELLS; i++) {
+            diff += Math.abs(a[i] - b[i]);
+            mass += a[i] + b[i];
+        }
+        return mass == 0 ? 0f : 1f - diff / mass;
+    }
+
+    // --- PERSISTENCE ---
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(GRID);
+        for (int letter = 0; letter < 26; letter++) {
+            float[] t = templates[letter];
+            out.writeInt(t == null ? 0 : weights[letter]);
+            if (t == null) continue;
+            out.writeBoolean(confirmed[letter]);
+            for (float v : t) out.writeFloat(v);
+        }
+    }
+
+    /** Replaces templates with saved ones; returns false if the format does not match. */
+    public boolean readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != FORMAT_VERSION || in.readInt() != GRID) return false;
+        for (int letter = 0; letter < 26; letter++) {
+            int weight = in.readInt();
+            if (weight == 0) {
+                templates[letter] = null;
+                confirmed[letter] = false;
+                continue;
+            }
+            confirmed[letter] = in.readBoolean();
+            float[] t = new float[CELLS];
+            for (int i = 0; i < CELLS; i++) t[i] = in.readFloat();
+            templates[letter] = t;
+            weights[letter] = weight;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,26 @@
+package com.wordscapes.vision;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns raw OCR elements into wheel letters: keeps single A-Z elements and maps
+ * their boxes from the (possibly downscaled) crop back to screen coordinates.
+ * Shared by the app and the off-device replay runner.
+ */
+public final class LetterExtractor {
+    private LetterExtractor() {}
+
+    public static List<OcrElement> extract(List<OcrElement> elements, int offsetX, int offsetY, int scale) {
+        List<OcrElement> letters = new ArrayList<>();
+        for (OcrElement e : elements) {
+            if (e.text.length() != 1) continue;
+            char c = Character.toUpperCase(e.text.charAt(0));
+            if (c < 'A' || c > 'Z') continue;
+            letters.add(new OcrElement(String.valueOf(c),
+                    e.left * scale + offsetX, e.top * scale + offsetY,
+                    e.right * scale + offsetX, e.bottom * scale + offsetY, e.confidence));
+        }
+        return letters;
+    }
+}
@@ -0,0 +1,89 @@
+package com.wordscapes.vision;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 8-bit grayscale frame backed by a reusable array.
+ *
+ * The array is sized for NV21 (luma plane followed by interleaved chroma), so a
+ * frame can be handed to an NV21 consumer without another copy: the chroma half
+ * is filled with neutral 128 once per size and never touched again.
+ */
+public class LumaFrame {
+    public int width, height;
+    public byte[] pixels;
+    private boolean chromaNeutral;
+
+    public LumaFrame(int width, int height) {
+        this.pixels = new byte[nv21Length(width, height)];
+        reshape(width, height);
+    }
+
+    /** Reuses the backing array for a new size, growing it only when it is too small. */
+    public void reshape(int width, int height) {
+        if (width == this.width && height == this.height) return;
+        int needed = nv21Length(width, height);
+        if (pixels.length < needed) pixels = new byte[needed];
+        this.width = width;
+        this.height = height;
+        chromaNeutral = false;
+    }
+
+    public int get(int x, int y) {
+        return pixels[y * width + x] & 0xFF;
+    }
+
+    public int nv21Length() {
+        return nv21Length(width, height);
+    }
+
+    /** Makes the buffer a valid NV21 image of the luma plane (gray, no color). */
+    public void fillNeutralChroma() {
+        if (chromaNeutral) return;
+        Arrays.fill(pixels, width * height, nv21Length(), (byte) 128);
+        chromaNeutral = true;
+    }
+
+    static int nv21Length(int width, int height) {
+        return width * height + 2 * ((width + 1) / 2) * ((height + 1) / 2);
+    }
+
+    /**
+     * Converts a w x h window of an RGBA frame (as delivered by ImageReader planes)
+     * to luma in one pass, resizing out to the window.
+     */
+    public static void fromRgba(ByteBuffer rgba, int rowStride, int pixelStride,
+                                int x, int y, int w, int h, LumaFrame out) {
+        out.reshape(w, h);
+        byte[] dst = out.pixels;
+        int i = 0;
+        for (int row = 0; row < h; row++) {
+            int p = (y + row) * rowStride + x * pixelStride;
+            for (int col = 0; col < w; col++, p += pixelStride) {
+                int r = rgba.get(p) & 0xFF;
+                int g = rgba.get(p + 1) & 0xFF;
+                int b = rgba.get(p + 2) & 0xFF;
+                // BT.601 weights in 8.8 fixed point
+                dst[i++] = (byte) ((77 * r + 150 * g + 29 * b) >> 8);
+            }
+        }
+    }
+
+    /** Like {@link #fromRgba} but keeps one pixel in every step x step block, for coarse layout analysis. */
+    public static void fromRgbaSampled(ByteBuffer rgba, int rowStride, int pixelStride,
+                                       int x, int y, int w, int h, int step, LumaFrame out) {
+        out.reshape(w / step, h / step);
+        byte[] dst = out.pixels;
+        int i = 0;
+        for (int row = 0; row < out.height; row++) {
+            int p = (y + row * step) * rowStride + x * pixelStride;
+            for (int col = 0; col < out.width; col++, p += step * pixelStride) {
+                int r = rgba.get(p) & 0xFF;
+                int g = rgba.get(p + 1) & 0xFF;
+                int b = rgba.get(p + 2) & 0xFF;
+                dst[i++] = (byte) ((77 * r + 150 * g + 29 * b) >> 8);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.wordscapes.vision;
+
+import java.util.ArrayDeque;
+
+/** Recycles {@link LumaFrame}s across captures so steady-state capture does not allocate. */
+public class LumaFramePool {
+    private final int maxWidth, maxHeight, maxFree;
+    private final ArrayDeque<LumaFrame> free = new ArrayDeque<>();
+
+    public LumaFramePool(int maxWidth, int maxHeight, int maxFree) {
+        this.maxWidth = maxWidth;
+        this.maxHeight = maxHeight;
+        this.maxFree = maxFree;
+    }
+
+    public synchronized LumaFrame acquire(int width, int height) {
+        LumaFrame frame = free.poll();
+        if (frame == null) frame = new LumaFrame(Math.max(width, maxWidth), Math.max(height, maxHeight));
+        frame.reshape(width, height);
+        return frame;
+    }
+
+    public synchronized void release(LumaFrame frame) {
+        if (frame != null && free.size() < maxFree) free.push(frame);
+    }
+
+    /** Drops pooled frames beyond keep. */
+    public synchronized void trim(int keep) {
+        while (free.size() > keep) free.pollLast();
+    }
+}
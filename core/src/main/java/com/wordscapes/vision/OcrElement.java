@@ -0,0 +1,28 @@
+package com.wordscapes.vision;
+
+/**
+ * One text element as an OCR engine reported it: its text, its box in the recognized
+ * image, and the engine's confidence (1 when the engine reports none).
+ */
+public final class OcrElement {
+    public final String text;
+    public final int left, top, right, bottom;
+    public final float confidence;
+
+    public OcrElement(String text, int left, int top, int right, int bottom) {
+        this(text, left, top, right, bottom, 1f);
+    }
+
+    public OcrElement(String text, int left, int top, int right, int bottom, float confidence) {
+        this.text = text;
+        this.left = left;
+        this.top = top;
+        this.right = right;
+        this.bottom = bottom;
+        this.confidence = confidence;
+    }
+
+    public float centerX() { return (left + right) / 2f; }
+
+    public float centerY() { return (top + bottom) / 2f; }
+}
@@ -0,0 +1,58 @@
+package com.wordscapes.vision;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/** Binary PGM (P5) read/write, so sample frames can be stored and inspected with any image viewer. */
+public final class Pgm {
+    private Pgm() {}
+
+    public static void write(LumaFrame frame, File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            out.write(("P5\n" + frame.width + " " + frame.height + "\n255\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(frame.pixels, 0, frame.width * frame.height);
+        }
+    }
+
+    public static LumaFrame read(File file) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            if (!"P5".equals(token(in))) throw new IOException("Not a binary PGM: " + file);
+            int width = Integer.parseInt(token(in));
+            int height = Integer.parseInt(token(in));
+            if (Integer.parseInt(token(in)) != 255) throw new IOException("Only 8-bit PGM is supported: " + file);
+            LumaFrame frame = new LumaFrame(width, height);
+            int n = width * height, off = 0;
+            while (off < n) {
+                int read = in.read(frame.pixels, off, n - off);
+                if (read < 0) throw new IOException("Truncated PGM: " + file);
+                off += read;
+            }
+            return frame;
+        }
+    }
+
+    // Whitespace-separated header token; '#' comments run to end of line
+    private static String token(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '#') {
+                while ((c = in.read()) != -1 && c != '\n') { }
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                if (sb.length() > 0) break;
+                continue;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,43 @@
+package com.wordscapes.vision;
+
+/**
+ * Settings for {@link Preprocessor}. A zero threshold radius or center mask
+ * disables that step; downscale 1 keeps full resolution.
+ */
+public final class PreprocessConfig {
+    public static final PreprocessConfig NONE = new PreprocessConfig("none", 1, 0, 0, 0f);
+    public static final PreprocessConfig HALF = new PreprocessConfig("half", 2, 0, 0, 0f);
+    public static final PreprocessConfig BINARY_HALF = new PreprocessConfig("binary-half", 2, 12, 10, 0.3f);
+    public static final PreprocessConfig BINARY_THIRD = new PreprocessConfig("binary-third", 3, 8, 10, 0.3f);
+    public static final PreprocessConfig BINARY_QUARTER = new PreprocessConfig("binary-quarter", 4, 6, 10, 0.3f);
+
+    /** Swept in order; the first entry is the reference the others are scored against. */
+    public static final PreprocessConfig[] PRESETS = { NONE, HALF, BINARY_HALF, BINARY_THIRD, BINARY_QUARTER };
+
+    public final String name;
+    /** Integer box-filter factor applied first. */
+    public final int downscale;
+    /** Half-size of the local-mean window, in downscaled pixels. */
+    public final int thresholdRadius;
+    /** A pixel turns black when it is this much darker than its local mean. */
+    public final int thresholdOffset;
+    /** Radius of the blanked-out center (shuffle button) as a fraction of the ring radius. */
+    public final float centerMask;
+
+    public PreprocessConfig(String name, int downscale, int thresholdRadius, int thresholdOffset, float centerMask) {
+        this.name = name;
+        this.downscale = Math.max(1, downscale);
+        this.thresholdRadius = thresholdRadius;
+        this.thresholdOffset = thresholdOffset;
+        this.centerMask = centerMask;
+    }
+
+    public boolean isIdentity() {
+        return downscale == 1 && thresholdRadius <= 0 && centerMask <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return name + "(/" + downscale + ", r=" + thresholdRadius + ", c=" + thresholdOffset + ", mask=" + centerMask + ")";
+    }
+}
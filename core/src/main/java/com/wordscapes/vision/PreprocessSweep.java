@@ -0,0 +1,47 @@
+package com.wordscapes.vision;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Accumulates OCR latency and agreement per preprocessing preset. Agreement is
+ * measured against the reference preset's letters for the same frame, since
+ * there is no ground truth on device.
+ */
+public class PreprocessSweep {
+
+    private static class Stats {
+        int runs, agreed;
+        long totalNanos, maxNanos;
+    }
+
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    public synchronized void record(PreprocessConfig config, long latencyNanos, String letters, String reference) {
+        Stats s = stats.get(config.name);
+        if (s == null) stats.put(config.name, s = new Stats());
+        s.runs++;
+        s.totalNanos += latencyNanos;
+        s.maxNanos = Math.max(s.maxNanos, latencyNanos);
+        if (sameMultiset(letters, reference)) s.agreed++;
+    }
+
+    public synchronized String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Stats> e : stats.entrySet()) {
+            Stats s = e.getValue();
+            sb.append(e.getKey()).append(": avg ").append(s.totalNanos / s.runs / 1000000)
+                    .append(" ms, max ").append(s.maxNanos / 1000000)
+                    .append(" ms, agree ").append(s.agreed).append('/').append(s.runs).append('\n');
+        }
+        return sb.toString();
+    }
+
+    static boolean sameMultiset(String a, String b) {
+        char[] x = a.toCharArray(), y = b.toCharArray();
+        Arrays.sort(x);
+        Arrays.sort(y);
+        return Arrays.equals(x, y);
+    }
+}
@@ -0,0 +1,83 @@
+package com.wordscapes.vision;
+
+/**
+ * Pixel math between the ring crop and OCR: box downscale, adaptive threshold
+ * (local mean from an integral image) and center masking, all on {@link LumaFrame}s.
+ * Holds scratch space, so one instance must not be shared across threads.
+ */
+public class Preprocessor {
+    private int[] integral = new int[0];
+
+    /** Writes the processed image to out (even-sized, for NV21) and returns it. */
+    public LumaFrame apply(LumaFrame in, PreprocessConfig config, LumaFrame out) {
+        int f = config.downscale;
+        out.reshape((in.width / f) & ~1, (in.height / f) & ~1);
+        downscale(in, f, out);
+        if (config.thresholdRadius > 0) threshold(out, config.thresholdRadius, config.thresholdOffset);
+        if (config.centerMask > 0) maskCenter(out, config.centerMask);
+        return out;
+    }
+
+    static void downscale(LumaFrame in, int f, LumaFrame out) {
+        byte[] src = in.pixels, dst = out.pixels;
+        int w = out.width, h = out.height;
+        if (f == 1) {
+            for (int y = 0; y < h; y++) System.arraycopy(src, y * in.width, dst, y * w, w);
+            return;
+        }
+        int area = f * f;
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                int sum = 0;
+                int row = y * f * in.width + x * f;
+                for (int dy = 0; dy < f; dy++, row += in.width) {
+                    for (int dx = 0; dx < f; dx++) sum += src[row + dx] & 0xFF;
+                }
+                dst[y * w + x] = (byte) (sum / area);
+            }
+        }
+    }
+
+    void threshold(LumaFrame frame, int radius, int offset) {
+        int w = frame.width, h = frame.height, stride = w + 1;
+        if (integral.length < stride * (h + 1)) integral = new int[stride * (h + 1)];
+        int[] sat = integral;
+        byte[] px = frame.pixels;
+
+        for (int x = 0; x <= w; x++) sat[x] = 0;
+        for (int y = 0; y < h; y++) {
+            int rowSum = 0;
+            sat[(y + 1) * stride] = 0;
+            for (int x = 0; x < w; x++) {
+                rowSum += px[y * w + x] & 0xFF;
+                sat[(y + 1) * stride + x + 1] = sat[y * stride + x + 1] + rowSum;
+            }
+        }
+
+        for (int y = 0; y < h; y++) {
+            int y0 = Math.max(0, y - radius), y1 = Math.min(h, y + radius + 1);
+            for (int x = 0; x < w; x++) {
+                int x0 = Math.max(0, x - radius), x1 = Math.min(w, x + radius + 1);
+                int sum = sat[y1 * stride + x1] - sat[y0 * stride + x1] - sat[y1 * stride + x0] + sat[y0 * stride + x0];
+                int area = (x1 - x0) * (y1 - y0);
+                int p = px[y * w + x] & 0xFF;
+                px[y * w + x] = (p + offset) * area < sum ? 0 : (byte) 255;
+            }
+        }
+    }
+
+    static void maskCenter(LumaFrame frame, float fraction) {
+        int w = frame.width, h = frame.height;
+        float cx = (w - 1) / 2f, cy = (h - 1) / 2f;
+        float r = fraction * Math.min(w, h) / 2f;
+        int y0 = Math.max(0, (int) (cy - r)), y1 = Math.min(h - 1, (int) Math.ceil(cy + r));
+        for (int y = y0; y <= y1; y++) {
+            float dy = y - cy;
+            float span = r * r - dy * dy;
+            if (span < 0) continue;
+            float half = (float) Math.sqrt(span);
+            int x0 = Math.max(0, (int) Math.ceil(cx - half)), x1 = Math.min(w - 1, (int) (cx + half));
+            for (int x = x0; x <= x1; x++) frame.pixels[y * w + x] = (byte) 255;
+        }
+    }
+}
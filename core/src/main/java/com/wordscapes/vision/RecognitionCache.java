@@ -0,0 +1,40 @@
+package com.wordscapes.vision;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Small LRU of wheel readings keyed by {@link FrameHash#content} of the ring crop. */
+public class RecognitionCache {
+    private final int capacity;
+    private final LinkedHashMap<Long, WheelReading> entries;
+    private int hits, misses;
+
+    public RecognitionCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Long, WheelReading>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, WheelReading> eldest) {
+                return size() > RecognitionCache.this.capacity;
+            }
+        };
+    }
+
+    public synchronized WheelReading get(long contentHash) {
+        WheelReading reading = entries.get(contentHash);
+        if (reading != null) hits++;
+        else misses++;
+        return reading;
+    }
+
+    public synchronized void put(long contentHash, WheelReading reading) {
+        entries.put(contentHash, reading);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized String describeStats() {
+        return "recognition cache " + entries.size() + "/" + capacity + ", " + hits + " hits / " + misses + " misses";
+    }
+}
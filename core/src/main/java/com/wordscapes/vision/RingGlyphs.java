@@ -0,0 +1,47 @@
+package com.wordscapes.vision;
+
+import java.util.List;
+
+/**
+ * Letter blobs segmented from one ring frame and their occupancy grids, plus the
+ * mapping from frame pixels back to screen pixels.
+ */
+public final class RingGlyphs {
+    private final List<Blob> blobs;
+    private final float[][] features;
+    private final int offsetX, offsetY, scale;
+
+    RingGlyphs(List<Blob> blobs, float[][] features, int offsetX, int offsetY, int scale) {
+        this.blobs = blobs;
+        this.features = features;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.scale = scale;
+    }
+
+    public int size() { return blobs.size(); }
+
+    public Blob blob(int i) { return blobs.get(i); }
+
+    public float[] features(int i) { return features[i]; }
+
+    public int left(int i) { return blobs.get(i).minX * scale + offsetX; }
+
+    public int top(int i) { return blobs.get(i).minY * scale + offsetY; }
+
+    public int right(int i) { return (blobs.get(i).maxX + 1) * scale + offsetX; }
+
+    public int bottom(int i) { return (blobs.get(i).maxY + 1) * scale + offsetY; }
+
+    /** Index of the only blob containing the screen point, or -1 if none or several do. */
+    public int indexAt(float screenX, float screenY) {
+        float x = (screenX - offsetX) / scale, y = (screenY - offsetY) / scale;
+        int found = -1;
+        for (int i = 0; i < blobs.size(); i++) {
+            if (!blobs.get(i).contains(x, y)) continue;
+            if (found >= 0) return -1;
+            found = i;
+        }
+        return found;
+    }
+}
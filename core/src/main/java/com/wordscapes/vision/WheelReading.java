@@ -0,0 +1,96 @@
+package com.wordscapes.vision;
+
+import java.util.Arrays;
+
+/**
+ * Letters recognized on one wheel, one per slot, with their screen boxes and
+ * (when a binarized frame was available) each slot's glyph occupancy grid.
+ * Immutable; {@link #relocate} derives the reading of a shuffled wheel.
+ */
+public final class WheelReading {
+    private final char[] letters;
+    private final int[] boxes; // left, top, right, bottom per slot, screen pixels
+    private final float[][] glyphs;
+
+    public WheelReading(char[] letters, int[] boxes, float[][] glyphs) {
+        this.letters = letters.clone();
+        this.boxes = boxes.clone();
+        this.glyphs = glyphs;
+    }
+
+    public int size() { return letters.length; }
+
+    public char letter(int slot) { return letters[slot]; }
+
+    public int left(int slot) { return boxes[4 * slot]; }
+
+    public int top(int slot) { return boxes[4 * slot + 1]; }
+
+    public int right(int slot) { return boxes[4 * slot + 2]; }
+
+    public int bottom(int slot) { return boxes[4 * slot + 3]; }
+
+    public boolean hasGlyphs() { return glyphs != null; }
+
+    /**
+     * Re-reads a shuffled wheel without OCR: a shuffle moves the same letters between
+     * the same slots, so the blob at each slot is matched against the glyphs this
+     * reading already knows, greedily by best score with every known glyph used once.
+     * A new level with a same-size wheel lands on the same slots, so each match must also
+     * beat every known glyph of another letter by minMargin (look-alikes such as E/F
+     * fail this), and the classifier, if given, must not read a confirmed other letter.
+     *
+     * @return the new reading, or null if the ring has a different blob count, a slot is
+     *         empty or shares its blob, or any match scores below minScore, wins by less
+     *         than minMargin or disagrees with the classifier
+     */
+    public WheelReading relocate(RingGlyphs ring, float minScore, float minMargin, GlyphClassifier classifier) {
+        int n = letters.length;
+        if (glyphs == null || ring.size() != n) return null;
+        float[][] current = new float[n][];
+        int[] blobs = new int[n];
+        boolean[] blobUsed = new boolean[n];
+        for (int slot = 0; slot < n; slot++) {
+            int i = ring.indexAt((left(slot) + right(slot)) / 2f, (top(slot) + bottom(slot)) / 2f);
+            if (i < 0 || blobUsed[i]) return null;
+            blobUsed[i] = true;
+            blobs[slot] = i;
+            current[slot] = ring.features(i);
+        }
+
+        float[] scores = new float[n * n];
+        for (int slot = 0; slot < n; slot++) {
+            for (int known = 0; known < n; known++) scores[slot * n + known] = GlyphClassifier.similarity(current[slot], glyphs[known]);
+        }
+
+        char[] relocated = new char[n];
+        boolean[] slotDone = new boolean[n], knownUsed = new boolean[n];
+        for (int round = 0; round < n; round++) {
+            int best = -1;
+            for (int i = 0; i < scores.length; i++) {
+                if (slotDone[i / n] || knownUsed[i % n]) continue;
+                if (best < 0 || scores[i] > scores[best]) best = i;
+            }
+            int slot = best / n;
+            char letter = letters[best % n];
+            if (scores[best] < minScore) return null;
+            // Repeated letters match each other; only a different letter is a rival
+            for (int known = 0; known < n; known++) {
+                if (letters[known] != letter && scores[best] - scores[slot * n + known] < minMargin) return null;
+            }
+            if (classifier != null) {
+                char read = classifier.classify(ring.blob(blobs[slot]), current[slot]).letter();
+                if (read != letter && classifier.isConfirmed(read)) return null;
+            }
+            slotDone[slot] = true;
+            knownUsed[best % n] = true;
+            relocated[slot] = letter;
+        }
+        return new WheelReading(relocated, boxes, current);
+    }
+
+    @Override
+    public String toString() {
+        return new String(letters) + Arrays.toString(boxes);
+    }
+}
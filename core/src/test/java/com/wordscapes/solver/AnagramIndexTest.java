@@ -0,0 +1,73 @@
+package com.wordscapes.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class AnagramIndexTest {
+
+    @Test
+    public void matchesTheDawgAndBruteForce() {
+        List<String> dictionary = WordLists.generated(20000, 3);
+        Trie trie = WordLists.trie(dictionary);
+        AnagramIndex index = new AnagramIndex(trie);
+        assertEquals(trie.wordCount(), index.wordCount());
+        Random random = new Random(9);
+        for (int i = 0; i < 200; i++) {
+            String letters = WordLists.letters(3 + random.nextInt(7), random);
+            List<String> expected = WordLists.bruteForce(dictionary, letters, 3, letters.length());
+            List<String> found = index.solve(letters, 3, letters.length(), Integer.MAX_VALUE);
+            // Order within a length follows the table, not the alphabet
+            assertEquals(letters, expected, sorted(found));
+            assertEquals(letters, trie.solve(letters, 3, letters.length(), Integer.MAX_VALUE), sorted(found));
+            assertLongestFirst(found);
+        }
+    }
+
+    @Test
+    public void anagramsShareOneClass() {
+        AnagramIndex index = new AnagramIndex(WordLists.trie(WordLists.SMALL));
+        assertEquals(AnagramIndex.keyOf("PLATE"), AnagramIndex.keyOf("PETAL"));
+        assertTrue(AnagramIndex.keyOf("PLATE") != AnagramIndex.keyOf("PLANE"));
+        assertEquals(new HashSet<>(Arrays.asList("PLATE", "PLEAT", "PETAL")),
+                new HashSet<>(index.solve("LAPET", 5, 5, Integer.MAX_VALUE)));
+        assertEquals(Arrays.asList("APPLE"), index.solve("PPLAE", 5, 5, Integer.MAX_VALUE));
+        assertTrue(index.solve("PLAE", 5, 5, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void limitKeepsTheLongestWords() {
+        AnagramIndex index = new AnagramIndex(WordLists.trie(WordLists.SMALL));
+        List<String> found = index.solve("PLANET", 3, 6, 3);
+        assertEquals(3, found.size());
+        assertEquals(new HashSet<>(Arrays.asList("PLANET", "PLATEN")), new HashSet<>(found.subList(0, 2)));
+        assertEquals(5, found.get(2).length());
+    }
+
+    @Test
+    public void skipsWordsTooLongForAKey() {
+        String longWord = "ABCDEFGHIJKLM";
+        AnagramIndex index = new AnagramIndex(WordLists.trie(Arrays.asList(longWord, "ABC")));
+        assertEquals(1, index.wordCount());
+        assertEquals(Arrays.asList("ABC"), index.solve(longWord, 1, longWord.length(), Integer.MAX_VALUE));
+    }
+
+    // Longest first, then alphabetical, as the DAWG emits them
+    private static List<String> sorted(List<String> words) {
+        List<String> out = new ArrayList<>(words);
+        out.sort((a, b) -> a.length() != b.length() ? b.length() - a.length() : a.compareTo(b));
+        return out;
+    }
+
+    private static void assertLongestFirst(List<String> words) {
+        for (int i = 1; i < words.size(); i++) {
+            assertTrue(words.get(i - 1) + " before " + words.get(i), words.get(i - 1).length() >= words.get(i).length());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.wordscapes.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class SolveCacheTest {
+    private static final List<String> PLATE = Arrays.asList("PLATE", "PLEAT", "PETAL", "LEAP");
+
+    @Test
+    public void keysIgnoreOrderCaseAndNonLetters() {
+        assertEquals("AELPT", SolveCache.keyOf("plate"));
+        assertEquals(SolveCache.keyOf("PLATE"), SolveCache.keyOf("t-e l a P"));
+        SolveCache cache = new SolveCache(4, 1);
+        cache.put("PLATE", PLATE);
+        assertEquals(PLATE, cache.get("petal"));
+        assertNull(cache.get("PLANE"));
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    public void evictsTheLeastRecentlyUsed() {
+        SolveCache cache = new SolveCache(2, 1);
+        cache.put("TAN", Arrays.asList("TAN"));
+        cache.put("PLATE", PLATE);
+        cache.get("TAN");
+        cache.put("PLANE", Arrays.asList("PLANE"));
+        assertEquals(2, cache.size());
+        assertNull(cache.get("PLATE"));
+        assertEquals(Arrays.asList("TAN"), cache.get("NAT"));
+    }
+
+    @Test
+    public void survivesASaveAndLoadInLruOrder() throws Exception {
+        File dir = Files.createTempDirectory("solve_cache").toFile();
+        File file = new File(dir, "solve_cache.bin");
+        try {
+            SolveCache cache = new SolveCache(2, 42);
+            assertFalse(cache.isDirty());
+            cache.put("TAN", Arrays.asList("TAN", "ANT"));
+            cache.put("PLATE", PLATE);
+            cache.get("TAN");
+            assertTrue(cache.isDirty());
+            cache.save(file);
+            assertFalse(cache.isDirty());
+            assertFalse(new File(dir, "solve_cache.bin.tmp").exists());
+
+            SolveCache restored = new SolveCache(2, 42);
+            assertTrue(restored.load(file));
+            assertEquals(2, restored.size());
+            // TAN was used last, so PLATE is evicted first
+            restored.put("PLANE", Arrays.asList("PLANE"));
+            assertNull(restored.get("PLATE"));
+            assertEquals(Arrays.asList("TAN", "ANT"), restored.get("TAN"));
+        } finally {
+            file.delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void loadIgnoresAMissingOrStaleFile() throws Exception {
+        File dir = Files.createTempDirectory("solve_cache").toFile();
+        File file = new File(dir, "solve_cache.bin");
+        try {
+            SolveCache cache = new SolveCache(4, 42);
+            assertFalse(cache.load(file));
+            cache.put("PLATE", PLATE);
+            cache.save(file);
+
+            // Another dictionary: the file is left alone and nothing is merged
+            SolveCache other = new SolveCache(4, 43);
+            other.put("TAN", Arrays.asList("TAN"));
+            assertFalse(other.load(file));
+            assertEquals(1, other.size());
+            assertNull(other.get("PLATE"));
+        } finally {
+            file.delete();
+            dir.delete();
+        }
+    }
+
+    @Test
+    public void aFailedSaveLeavesTheCacheDirty() throws Exception {
+        File dir = Files.createTempDirectory("solve_cache").toFile();
+        try {
+            SolveCache cache = new SolveCache(4, 42);
+            cache.put("PLATE", PLATE);
+            try {
+                cache.save(new File(dir, "missing/solve_cache.bin"));
+                fail("Saved into a missing directory");
+            } catch (IOException expected) {
+                // The parent directory does not exist
+            }
+            assertTrue(cache.isDirty());
+        } finally {
+            dir.delete();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.wordscapes.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.Test;
+
+public class TrieTest {
+
+    @Test
+    public void visitsEveryWordOnceInOrder() {
+        Trie trie = WordLists.trie(WordLists.SMALL);
+        assertEquals(new ArrayList<>(new TreeSet<>(WordLists.SMALL)), words(trie));
+        assertEquals(WordLists.SMALL.size(), trie.wordCount());
+    }
+
+    @Test
+    public void insertAllSkipsBlankLinesAndUpperCases() throws Exception {
+        Trie trie = new Trie();
+        trie.insertAll(new BufferedReader(new StringReader("plate\n\n  Tan \nit's\nPLATE\n")));
+        assertEquals(Arrays.asList("PLATE", "TAN"), words(trie));
+    }
+
+    @Test
+    public void sharesSuffixes() {
+        // Four words ending in -ATE share one ATE tail
+        Trie trie = WordLists.trie(Arrays.asList("PLATE", "SLATE", "GRATE", "CRATE"));
+        assertTrue(trie.nodeCount() + " nodes", trie.nodeCount() <= 10);
+        assertTrue(trie.pointerTrieFootprint() > trie.memoryFootprint());
+    }
+
+    @Test
+    public void survivesARoundTrip() throws Exception {
+        List<String> dictionary = WordLists.generated(5000, 7);
+        Trie trie = WordLists.trie(dictionary);
+        Trie restored = Trie.read(ByteBuffer.wrap(bytes(trie)));
+        assertEquals(trie.wordCount(), restored.wordCount());
+        assertEquals(trie.nodeCount(), restored.nodeCount());
+        assertEquals(trie.edgeCount(), restored.edgeCount());
+        assertEquals(trie.fingerprint(), restored.fingerprint());
+        assertEquals(trie.describeFootprint(), restored.describeFootprint());
+        assertEquals(words(trie), words(restored));
+
+        Random random = new Random(11);
+        for (int i = 0; i < 50; i++) {
+            String letters = WordLists.letters(7, random);
+            assertEquals(letters, trie.solve(letters, 3, 7, Integer.MAX_VALUE), restored.solve(letters, 3, 7, Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void readRejectsOtherFilesAndTruncatedOnes() throws Exception {
+        byte[] bytes = bytes(WordLists.trie(WordLists.SMALL));
+        expectIOException(Arrays.copyOf(bytes, 4 * Trie.HEADER_INTS + 8));
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] ^= 1;
+        expectIOException(wrongMagic);
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[7] ^= 1;
+        expectIOException(wrongVersion);
+    }
+
+    @Test
+    public void solveMatchesBruteForce() {
+        List<String> dictionary = WordLists.generated(20000, 3);
+        Trie trie = WordLists.trie(dictionary);
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            String letters = WordLists.letters(3 + random.nextInt(7), random);
+            assertEquals(letters, WordLists.bruteForce(dictionary, letters, 3, letters.length()),
+                    trie.solve(letters, 3, letters.length(), Integer.MAX_VALUE));
+        }
+    }
+
+    @Test
+    public void solveUsesEachLetterAsOftenAsTheWheelHasIt() {
+        Trie trie = WordLists.trie(WordLists.SMALL);
+        assertEquals(Arrays.asList("PLANET", "PLATEN", "PANEL", "PETAL", "PLANE", "PLANT", "PLATE", "PLEAT"),
+                trie.solve("PLANET", 5, 6, Integer.MAX_VALUE));
+        assertFalse(trie.solve("PLATE", 1, 5, Integer.MAX_VALUE).contains("APPLE"));
+        assertTrue(trie.solve("APPLE", 1, 5, Integer.MAX_VALUE).contains("APPLE"));
+        assertTrue(trie.solve("", 1, 5, Integer.MAX_VALUE).isEmpty());
+    }
+
+    @Test
+    public void limitKeepsTheLongestWords() {
+        Trie trie = WordLists.trie(WordLists.SMALL);
+        List<String> all = trie.solve("PLANET", 3, 6, Integer.MAX_VALUE);
+        assertEquals(all.subList(0, 4), trie.solve("PLANET", 3, 6, 4));
+        assertEquals(Arrays.asList("PLANET", "PLATEN"), trie.solve("planet", 3, 6, 2));
+    }
+
+    private static List<String> words(Trie trie) {
+        List<String> words = new ArrayList<>();
+        trie.forEachWord(words::add);
+        return words;
+    }
+
+    private static byte[] bytes(Trie trie) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        trie.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static void expectIOException(byte[] bytes) {
+        try {
+            Trie.read(ByteBuffer.wrap(bytes));
+            fail("Read " + bytes.length + " bad bytes");
+        } catch (IOException expected) {
+            // Rejected before any array is read
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.wordscapes.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+/** Dictionaries for solver tests, and a brute-force answer to check the engines against. */
+final class WordLists {
+    static final List<String> SMALL = Arrays.asList(
+            "A", "AT", "TA", "TAN", "ANT", "NAT", "TAP", "PAT", "APT", "NAP", "PAN", "PEN", "NET", "TEN",
+            "LEAP", "PALE", "PEAL", "PLEA", "PLAN", "TAPE", "PATE", "PEAT", "LATE", "TALE", "TEAL", "NEAT",
+            "ANTE", "PANE", "PLATE", "PLEAT", "PETAL", "PLANT", "PLANE", "PANEL", "PLANET", "PLATEN",
+            "APPLE", "PAPA", "PEPPER", "TATTLE");
+
+    private static final String FREQUENT = "EEEEEEAAAARRRIIIOOOTTTNNNSSSLLCCUUDDPMMHGBFYWKVXZJQ";
+
+    private WordLists() {}
+
+    /** English-like random words of 2..9 letters; duplicates are possible. */
+    static List<String> generated(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> words = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            char[] word = new char[2 + random.nextInt(8)];
+            for (int j = 0; j < word.length; j++) word[j] = FREQUENT.charAt(random.nextInt(FREQUENT.length()));
+            words.add(new String(word));
+        }
+        return words;
+    }
+
+    static String letters(int count, Random random) {
+        char[] letters = new char[count];
+        for (int i = 0; i < count; i++) letters[i] = FREQUENT.charAt(random.nextInt(FREQUENT.length()));
+        return new String(letters);
+    }
+
+    static Trie trie(Collection<String> words) {
+        Trie trie = new Trie();
+        for (String w : words) trie.insert(w);
+        trie.freeze();
+        return trie;
+    }
+
+    /** Distinct words spellable from letters, longest first and alphabetical within a length. */
+    static List<String> bruteForce(Collection<String> words, String letters, int minLength, int maxLength) {
+        TreeSet<String> found = new TreeSet<>((a, b) -> a.length() != b.length() ? b.length() - a.length() : a.compareTo(b));
+        for (String w : words) {
+            if (w.length() >= minLength && w.length() <= maxLength && spells(letters, w)) found.add(w);
+        }
+        return new ArrayList<>(found);
+    }
+
+    private static boolean spells(String letters, String word) {
+        int[] counts = new int[26];
+        for (int i = 0; i < letters.length(); i++) counts[letters.charAt(i) - 'A']++;
+        for (int i = 0; i < word.length(); i++) {
+            if (--counts[word.charAt(i) - 'A'] < 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,67 @@
+package com.wordscapes.swipe;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SwipeCalibratorTest {
+    private static final SwipeProfile[] LADDER = {
+            new SwipeProfile("slow", 100, 100, 0f, 0),
+            new SwipeProfile("medium", 60, 25, 0.1f, 0),
+            new SwipeProfile("fast", 20, 5, 0.05f, 10),
+    };
+
+    @Test
+    public void climbsTheLadderWhileStrokesAreAccepted() {
+        SwipeCalibrator calibrator = new SwipeCalibrator(LADDER, 2);
+        assertEquals("medium", calibrator.nextProfile().name);
+        calibrator.record(true);
+        assertEquals("slow", calibrator.reliableProfile().name);
+        calibrator.record(true);
+        assertEquals("medium", calibrator.reliableProfile().name);
+        assertEquals("fast", calibrator.nextProfile().name);
+        calibrator.record(true);
+        calibrator.record(true);
+        assertTrue(calibrator.isDone());
+        assertEquals("fast", calibrator.reliableProfile().name);
+        assertEquals("fast", calibrator.nextProfile().name);
+    }
+
+    @Test
+    public void stopsWhenTheReliableProfileTakesAWordTheTrialMissed() {
+        SwipeCalibrator calibrator = new SwipeCalibrator(LADDER, 1);
+        calibrator.record(true);
+        calibrator.record(false);
+        assertTrue(calibrator.needsRepeat());
+        assertEquals("medium", calibrator.nextProfile().name);
+        calibrator.record(true);
+        assertTrue(calibrator.isDone());
+        assertFalse(calibrator.needsRepeat());
+        assertEquals("medium", calibrator.reliableProfile().name);
+    }
+
+    @Test
+    public void ignoresAWordNeitherProfileTakes() {
+        SwipeCalibrator calibrator = new SwipeCalibrator(LADDER, 2);
+        calibrator.record(true);
+        calibrator.record(false);
+        calibrator.record(false);
+        assertFalse(calibrator.isDone());
+        assertFalse(calibrator.needsRepeat());
+        assertEquals("medium", calibrator.nextProfile().name);
+        // The accepted stroke before the miss still counts
+        calibrator.record(true);
+        assertEquals("medium", calibrator.reliableProfile().name);
+    }
+
+    @Test
+    public void aSingleProfileLadderIsAlreadyCalibrated() {
+        SwipeCalibrator calibrator = new SwipeCalibrator(new SwipeProfile[] { SwipeProfile.DEFAULT }, 3);
+        assertTrue(calibrator.isDone());
+        assertEquals(SwipeProfile.DEFAULT, calibrator.nextProfile());
+        calibrator.record(false);
+        assertFalse(calibrator.needsRepeat());
+    }
+}
@@ -0,0 +1,39 @@
+package com.wordscapes.swipe;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class SwipePathsTest {
+
+    @Test
+    public void packsPathsBackToBack() {
+        SwipePaths paths = new SwipePaths(3, 4);
+        assertTrue(paths.isEmpty());
+        paths.add(new float[] { 1f, 2f, 3f, 4f, 99f, 99f }, 2);
+        paths.add(new float[] { 5f, 6f, 7f, 8f, 9f, 10f }, 3);
+        assertEquals(2, paths.size());
+        assertEquals(2, paths.points(0));
+        assertEquals(3, paths.points(1));
+        assertEquals(3f, paths.x(0, 1), 0f);
+        assertEquals(6f, paths.y(1, 0), 0f);
+        assertEquals(9f, paths.x(1, 2), 0f);
+        assertArrayEquals(new float[] { 1f, 2f, 3f, 4f }, paths.toArray(0), 0f);
+        assertArrayEquals(new float[] { 5f, 6f, 7f, 8f, 9f, 10f }, paths.toArray(1), 0f);
+    }
+
+    @Test
+    public void holdsAtMostMaxPaths() {
+        SwipePaths paths = new SwipePaths(1, 2);
+        paths.add(new float[4], 2);
+        try {
+            paths.add(new float[4], 2);
+            fail("Added past maxPaths");
+        } catch (IllegalStateException expected) {
+            // Sized from the scheduled word count
+        }
+    }
+}
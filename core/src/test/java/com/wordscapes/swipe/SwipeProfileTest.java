@@ -0,0 +1,41 @@
+package com.wordscapes.swipe;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class SwipeProfileTest {
+
+    @Test
+    public void defaultTakesAHundredMillisecondsPerLetter() {
+        SwipePaths paths = paths(new float[] { 0f, 0f, 300f, 400f, 300f, 0f });
+        assertEquals(300, SwipeProfile.DEFAULT.strokeMs(paths, 0));
+        assertEquals(300, SwipeProfile.DEFAULT.totalMs(paths, 0));
+    }
+
+    @Test
+    public void timingGrowsWithSegmentsAndPixels() {
+        SwipePaths paths = paths(new float[] { 0f, 0f, 300f, 400f, 300f, 0f });
+        SwipeProfile profile = new SwipeProfile("test", 20, 10, 0.1f, 15);
+        assertEquals(900f, SwipeProfile.length(paths, 0), 1e-3);
+        assertEquals(20 + 2 * 10 + 90, profile.strokeMs(paths, 0));
+        assertEquals(130 + 15, profile.totalMs(paths, 0));
+        // 500 px of the 900 px stroke, then 400 px
+        assertEquals(72, profile.segmentMs(paths, 0, 0));
+        assertEquals(58, profile.segmentMs(paths, 0, 1));
+    }
+
+    @Test
+    public void aPathWithoutLengthSplitsTimeEvenly() {
+        SwipePaths paths = paths(new float[] { 5f, 5f, 5f, 5f, 5f, 5f });
+        SwipeProfile profile = new SwipeProfile("test", 40, 0, 1f, 0);
+        assertEquals(40, profile.strokeMs(paths, 0));
+        assertEquals(20, profile.segmentMs(paths, 0, 1));
+    }
+
+    private static SwipePaths paths(float[] path) {
+        SwipePaths paths = new SwipePaths(1, path.length / 2);
+        paths.add(path, path.length / 2);
+        return paths;
+    }
+}
@@ -0,0 +1,87 @@
+package com.wordscapes.swipe;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class WheelGeometryTest {
+    private static final float CX = 540f, CY = 1500f, R = 200f;
+
+    @Test
+    public void fitsTheCircleThroughTheSlots() {
+        WheelGeometry wheel = ring("PLANET", 0f);
+        assertTrue(wheel.isSnapped());
+        assertEquals(CX, wheel.centerX(), 0.01);
+        assertEquals(CY, wheel.centerY(), 0.01);
+        assertEquals(R, wheel.radius(), 0.01);
+    }
+
+    @Test
+    public void snapsJitteredSlotsOntoTheRing() {
+        WheelGeometry wheel = ring("PLANET", 12f);
+        assertTrue(wheel.isSnapped());
+        for (int slot = 0; slot < wheel.size(); slot++) {
+            float dx = wheel.x(slot) - wheel.centerX(), dy = wheel.y(slot) - wheel.centerY();
+            assertEquals(wheel.radius(), Math.sqrt(dx * dx + dy * dy), 0.01);
+        }
+    }
+
+    @Test
+    public void leavesSlotsThatAreNotARingAlone() {
+        float[] x = { 100f, 200f, 300f, 400f }, y = { 50f, 50f, 50f, 50f };
+        WheelGeometry line = new WheelGeometry("LINE".toCharArray(), x, y, true);
+        assertFalse(line.isSnapped());
+        assertEquals(300f, line.x(2), 0f);
+        assertFalse(new WheelGeometry("TAN".toCharArray(), new float[] { 0f, 10f, 5f }, new float[] { 0f, 0f, 9f }, false).isSnapped());
+    }
+
+    @Test
+    public void pathsVisitSlotsAndUseDuplicatesInOrder() {
+        float[] x = { 0f, 10f, 20f, 30f, 40f }, y = { 0f, 1f, 2f, 3f, 4f };
+        WheelGeometry wheel = new WheelGeometry("APPLE".toCharArray(), x, y, false);
+        float[] out = new float[2 * 5];
+        assertEquals(3, wheel.path("PAL", out));
+        assertArrayEquals(new float[] { 10f, 1f, 0f, 0f, 30f, 3f }, Arrays.copyOf(out, 6), 0f);
+        assertEquals(4, wheel.path("PEPA", out));
+        assertArrayEquals(new float[] { 10f, 1f, 40f, 4f, 20f, 2f, 0f, 0f }, Arrays.copyOf(out, 8), 0f);
+    }
+
+    @Test
+    public void pathsFailForMissingLettersOrASmallBuffer() {
+        WheelGeometry wheel = ring("PLATE", 0f);
+        float[] out = new float[2 * 5];
+        assertEquals(-1, wheel.path("PLANE", out));
+        assertEquals(-1, wheel.path("APPLE", out));
+        assertEquals(-1, wheel.path("plate", out));
+        assertEquals(-1, wheel.path("PLATE", new float[8]));
+        assertEquals(5, wheel.path("PETAL", out));
+    }
+
+    @Test
+    public void slotPathsFollowTheGivenSlots() {
+        WheelGeometry wheel = ring("TAN", 0f);
+        float[] out = new float[6];
+        assertEquals(3, wheel.path(new int[] { 2, 0, 1 }, out));
+        assertEquals(wheel.x(2), out[0], 0f);
+        assertEquals(wheel.y(0), out[3], 0f);
+        assertEquals(wheel.x(1), out[4], 0f);
+        assertEquals(-1, wheel.path(new int[] { 0, 1, 2, 0 }, out));
+    }
+
+    // Letters clockwise from the top, each pushed in or out by up to jitter
+    private static WheelGeometry ring(String letters, float jitter) {
+        int n = letters.length();
+        float[] x = new float[n], y = new float[n];
+        for (int i = 0; i < n; i++) {
+            double angle = Math.toRadians(-90 + 360.0 * i / n);
+            float r = R + (i % 2 == 0 ? jitter : -jitter);
+            x[i] = CX + r * (float) Math.cos(angle);
+            y[i] = CY + r * (float) Math.sin(angle);
+        }
+        return new WheelGeometry(letters.toCharArray(), x, y, true);
+    }
+}
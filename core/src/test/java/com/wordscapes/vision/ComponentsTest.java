@@ -0,0 +1,72 @@
+package com.wordscapes.vision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.junit.Test;
+
+public class ComponentsTest {
+    private final Components components = new Components();
+
+    @Test
+    public void diagonalNeighboursAreOneComponent() {
+        LumaFrame frame = frame(
+                "#....",
+                ".#...",
+                "..#.#",
+                "...#.");
+        List<Blob> blobs = components.find(frame, 1, 10);
+        assertEquals(1, blobs.size());
+        Blob b = blobs.get(0);
+        assertEquals(5, b.area);
+        assertEquals(0, b.minX);
+        assertEquals(4, b.maxX);
+        assertEquals(0, b.minY);
+        assertEquals(3, b.maxY);
+    }
+
+    @Test
+    public void blobsComeInRowMajorOrderFilteredByHeight() {
+        LumaFrame frame = frame(
+                "...#.#",
+                "#..#..",
+                "#..#..",
+                "#.....");
+        List<Blob> blobs = components.find(frame, 2, 3);
+        assertEquals(2, blobs.size());
+        assertEquals(3, blobs.get(0).minX); // discovered first on row 0, 3 tall
+        assertEquals(0, blobs.get(1).minX);
+        // The lone pixel at (5, 0) is too short
+        assertEquals(1, components.find(frame, 1, 1).size());
+    }
+
+    @Test
+    public void membershipFollowsLabelsNotBoxes() {
+        LumaFrame frame = frame(
+                "###",
+                "#..",
+                "#.#",
+                "#..");
+        List<Blob> blobs = components.find(frame, 1, 4);
+        assertEquals(2, blobs.size());
+        Blob outer = blobs.get(0), dot = blobs.get(1);
+        assertTrue(outer.contains(2.5f, 2.5f)); // the dot lies inside the outer box
+        assertTrue(components.isMember(outer, 0, 3));
+        assertFalse(components.isMember(outer, 2, 2));
+        assertTrue(components.isMember(dot, 2, 2));
+        assertFalse(components.isMember(outer, 1, 1));
+    }
+
+    // '#' is black, anything else white
+    static LumaFrame frame(String... rows) {
+        LumaFrame frame = new LumaFrame(rows[0].length(), rows.length);
+        for (int y = 0; y < rows.length; y++) {
+            for (int x = 0; x < rows[y].length(); x++) {
+                frame.pixels[y * frame.width + x] = rows[y].charAt(x) == '#' ? 0 : (byte) 255;
+            }
+        }
+        return frame;
+    }
+}
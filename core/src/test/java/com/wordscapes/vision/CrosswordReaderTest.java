@@ -0,0 +1,120 @@
+package com.wordscapes.vision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class CrosswordReaderTest {
+    private static final int TILE = 40, PITCH = 46, MARGIN = 20;
+    private static final int BACKGROUND = 40, EMPTY = 235, FILLED = 120;
+
+    // A five-letter across word, with a four-letter down word off its first letter
+    // and a three-letter one off its last
+    private static final String[] LEVEL = {
+            "#####",
+            "#...#",
+            "#...#",
+            "#....",
+    };
+
+    private final CrosswordReader reader = new CrosswordReader(200);
+
+    @Test
+    public void findsCellsAndSlotsOfAnEmptyGrid() {
+        CrosswordGrid grid = reader.detect(board(LEVEL));
+        assertNotNull(grid);
+        assertEquals(10, grid.cellCount());
+        assertEquals(3, grid.slotCount());
+        assertTrue(grid.isWellFormed());
+        assertEquals(0, grid.filledCount());
+        assertEquals("[0, 0, 0, 1, 1, 1]", Arrays.toString(grid.openSlotsByLength()));
+    }
+
+    @Test
+    public void filledTilesCloseTheirSlots() {
+        CrosswordGrid grid = reader.detect(board(LEVEL));
+        // The across word is played: its tiles turn colored
+        grid.update(board(
+                "FFFFF",
+                "#...#",
+                "#...#",
+                "#...."));
+        assertEquals(5, grid.filledCount());
+        assertEquals(0, grid.openSlots(5));
+        assertEquals(1, grid.openSlots(4));
+        assertEquals(1, grid.openSlots(3));
+        assertFalse(grid.isFull());
+
+        grid.update(board(
+                "FFFFF",
+                "F...F",
+                "F...F",
+                "F...."));
+        assertTrue(grid.isFull());
+        assertEquals("[0, 0, 0, 0, 0, 0]", Arrays.toString(grid.openSlotsByLength()));
+    }
+
+    @Test
+    public void aLetterOnATileCountsAsFilled() {
+        CrosswordGrid grid = reader.detect(board(LEVEL));
+        LumaFrame lettered = board(LEVEL);
+        // A dark stroke through the middle of the first tile
+        int x0 = MARGIN + TILE / 2 - 3, y0 = MARGIN + TILE / 4;
+        for (int y = y0; y < y0 + TILE / 2; y++) {
+            for (int x = x0; x < x0 + 6; x++) lettered.pixels[y * lettered.width + x] = (byte) BACKGROUND;
+        }
+        grid.update(lettered);
+        assertEquals(1, grid.filledCount());
+    }
+
+    @Test
+    public void aGridReadPartWayThroughIsNotWellFormed() {
+        // The middle of the across word was already filled, so it is not a bright tile
+        CrosswordGrid grid = reader.detect(board(
+                "##F##",
+                "#...#",
+                "#...#",
+                "#...."));
+        assertNotNull(grid);
+        assertEquals(9, grid.cellCount());
+        assertFalse(grid.isWellFormed());
+    }
+
+    @Test
+    public void needsThreeSquareTiles() {
+        assertNull(reader.detect(board(
+                "##...",
+                ".....")));
+        // A wide bright bar is not a tile
+        LumaFrame bar = board(
+                "##...",
+                ".....",
+                "#....");
+        for (int y = MARGIN + PITCH * 2; y < MARGIN + PITCH * 2 + TILE; y++) {
+            for (int x = MARGIN; x < MARGIN + 4 * PITCH; x++) bar.pixels[y * bar.width + x] = (byte) EMPTY;
+        }
+        assertNull(reader.detect(bar));
+    }
+
+    // '#' empty tile, 'F' filled tile, '.' background; leaves room below for the one-third height cap
+    private static LumaFrame board(String... rows) {
+        int width = 2 * MARGIN + rows[0].length() * PITCH, height = 3 * (2 * MARGIN + rows.length * PITCH);
+        LumaFrame frame = new LumaFrame(width, height);
+        Arrays.fill(frame.pixels, 0, width * height, (byte) BACKGROUND);
+        for (int r = 0; r < rows.length; r++) {
+            for (int c = 0; c < rows[r].length(); c++) {
+                char cell = rows[r].charAt(c);
+                if (cell == '.') continue;
+                byte luma = (byte) (cell == '#' ? EMPTY : FILLED);
+                int x0 = MARGIN + c * PITCH, y0 = MARGIN + r * PITCH;
+                for (int y = y0; y < y0 + TILE; y++) Arrays.fill(frame.pixels, y * width + x0, y * width + x0 + TILE, luma);
+            }
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,151 @@
+package com.wordscapes.vision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import org.junit.Test;
+
+public class GlyphClassifierTest {
+    private static final PreprocessConfig CONFIG = PreprocessConfig.BINARY_THIRD;
+
+    private final Preprocessor preprocessor = new Preprocessor();
+
+    @Test
+    public void segmentsOneGlyphPerLetter() throws Exception {
+        GlyphClassifier classifier = new GlyphClassifier();
+        for (String word : RingFrames.WORDS) {
+            RingGlyphs ring = segment(classifier, word);
+            assertEquals(word, word.length(), ring.size());
+            for (int i = 0; i < word.length(); i++) {
+                int x = Math.round(RingFrames.letterX(i, word.length(), 1)), y = Math.round(RingFrames.letterY(i, word.length(), 1));
+                assertTrue(word + " letter " + i + " has its own blob", ring.indexAt(x, y) >= 0);
+            }
+        }
+    }
+
+    @Test
+    public void screenBoxesScaleBackFromTheFrame() throws Exception {
+        GlyphClassifier classifier = new GlyphClassifier();
+        LumaFrame binary = preprocessor.apply(RingFrames.load("TAN"), CONFIG, new LumaFrame(1, 1));
+        RingGlyphs ring = classifier.segment(binary, 100, 200, CONFIG.downscale);
+        Blob b = ring.blob(0);
+        assertEquals(b.minX * 3 + 100, ring.left(0));
+        assertEquals(b.minY * 3 + 200, ring.top(0));
+        assertEquals((b.maxX + 1) * 3 + 100, ring.right(0));
+        assertEquals((b.maxY + 1) * 3 + 200, ring.bottom(0));
+        assertEquals(0, ring.indexAt(ring.left(0) + 1, ring.top(0) + 1));
+        assertEquals(-1, ring.indexAt(100 + RingFrames.SIZE / 2f, 200 + RingFrames.SIZE / 2f));
+    }
+
+    @Test
+    public void classifiesLettersLearnedFromAnotherRing() throws Exception {
+        GlyphClassifier classifier = new GlyphClassifier();
+        assertFalse(classifier.hasTemplates());
+        learn(classifier, "PLANET");
+        assertTrue(classifier.hasTemplates());
+        RingGlyphs ring = segment(classifier, "PLATE");
+        List<Glyph> glyphs = classifier.classify(ring);
+        assertEquals(letters("PLATE", ring), read(glyphs));
+        for (Glyph g : glyphs) {
+            assertEquals(GlyphClassifier.TOP_K, g.candidates.length);
+            assertTrue(g.letter() + " margin " + g.margin(), g.margin() >= 0.05f);
+            assertTrue(g.scores[1] >= g.scores[2]);
+        }
+    }
+
+    @Test
+    public void onlyLearnedLettersAreCandidates() throws Exception {
+        GlyphClassifier classifier = new GlyphClassifier();
+        learn(classifier, "TAN");
+        RingGlyphs ring = segment(classifier, "PLATE");
+        for (Glyph g : classifier.classify(ring)) {
+            assertEquals(3, g.candidates.length);
+            assertTrue(new String(g.candidates).matches("[TAN]+"));
+        }
+        assertEquals(1, new GlyphClassifier().classify(ring).get(0).candidates.length);
+    }
+
+    @Test
+    public void seedsRankButOnlyLearnedLettersAreConfirmed() throws Exception {
+        GlyphClassifier classifier = new GlyphClassifier();
+        RingGlyphs planet = segment(classifier, "PLANET");
+        String letters = letters("PLANET", planet);
+        for (int i = 0; i < planet.size(); i++) classifier.seed(letters.charAt(i), planet.features(i));
+        assertTrue(classifier.hasTemplates());
+        assertFalse(classifier.isConfirmed('P'));
+
+        RingGlyphs plate = segment(classifier, "PLATE");
+        assertEquals(letters("PLATE", plate), read(classifier.classify(plate)));
+
+        int p = letters("PLATE", plate).indexOf('P');
+        classifier.learn('p', plate.features(p));
+        assertTrue(classifier.isConfirmed('P'));
+        assertFalse(classifier.isConfirmed('L'));
+        // The first confirmed example replaces the seed, and a later seed leaves it alone
+        classifier.seed('P', planet.features(letters.indexOf('T')));
+        assertEquals(1f, classifier.classify(plate.blob(p), plate.features(p)).confidence(), 1e-6);
+    }
+
+    @Test
+    public void similarityIsOneForIdenticalGridsAndZeroForDisjoint() {
+        float[] a = new float[GlyphClassifier.GRID * GlyphClassifier.GRID];
+        float[] b = new float[a.length];
+        a[0] = 1f;
+        b[1] = 1f;
+        assertEquals(1f, GlyphClassifier.similarity(a, a), 1e-6);
+        assertEquals(0f, GlyphClassifier.similarity(a, b), 1e-6);
+        assertEquals(0f, GlyphClassifier.similarity(new float[a.length], new float[a.length]), 1e-6);
+    }
+
+    @Test
+    public void templatesSurviveARoundTrip() throws Exception {
+        GlyphClassifier classifier = new GlyphClassifier();
+        learn(classifier, "PLANET");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        classifier.writeTo(new DataOutputStream(bytes));
+        GlyphClassifier restored = new GlyphClassifier();
+        assertTrue(restored.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+        assertTrue(restored.isConfirmed('N'));
+        assertFalse(restored.isConfirmed('S'));
+
+        RingGlyphs ring = segment(classifier, "PLATE");
+        List<Glyph> before = classifier.classify(ring), after = restored.classify(ring);
+        for (int i = 0; i < before.size(); i++) {
+            assertEquals(new String(before.get(i).candidates), new String(after.get(i).candidates));
+            assertEquals(before.get(i).confidence(), after.get(i).confidence(), 1e-6);
+        }
+    }
+
+    private RingGlyphs segment(GlyphClassifier classifier, String word) throws Exception {
+        LumaFrame binary = preprocessor.apply(RingFrames.load(word), CONFIG, new LumaFrame(1, 1));
+        return classifier.segment(binary, 0, 0, CONFIG.downscale);
+    }
+
+    private void learn(GlyphClassifier classifier, String word) throws Exception {
+        RingGlyphs ring = segment(classifier, word);
+        String letters = letters(word, ring);
+        for (int i = 0; i < ring.size(); i++) classifier.learn(letters.charAt(i), ring.features(i));
+    }
+
+    // The word's letters in the ring's blob order, matched by position
+    private static String letters(String word, RingGlyphs ring) {
+        char[] out = new char[ring.size()];
+        for (int i = 0; i < word.length(); i++) {
+            int blob = ring.indexAt(RingFrames.letterX(i, word.length(), 1), RingFrames.letterY(i, word.length(), 1));
+            out[blob] = word.charAt(i);
+        }
+        return new String(out);
+    }
+
+    private static String read(List<Glyph> glyphs) {
+        StringBuilder sb = new StringBuilder();
+        for (Glyph g : glyphs) sb.append(g.letter());
+        return sb.toString();
+    }
+}
@@ -0,0 +1,131 @@
+package com.wordscapes.vision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class PreprocessorTest {
+    private final Preprocessor preprocessor = new Preprocessor();
+
+    @Test
+    public void binaryPresetsTurnRingsBlackAndWhite() throws Exception {
+        for (PreprocessConfig config : new PreprocessConfig[] {
+                PreprocessConfig.BINARY_HALF, PreprocessConfig.BINARY_THIRD, PreprocessConfig.BINARY_QUARTER }) {
+            for (String word : RingFrames.WORDS) {
+                LumaFrame out = preprocessor.apply(RingFrames.load(word), config, new LumaFrame(1, 1));
+                assertEquals(config.name, (RingFrames.SIZE / config.downscale) & ~1, out.width);
+                assertEquals(config.name, out.width, out.height);
+                for (int i = 0; i < out.width * out.height; i++) {
+                    int p = out.pixels[i] & 0xFF;
+                    assertTrue(config.name + " " + word + " pixel " + i + " = " + p, p == 0 || p == 255);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void thresholdKeepsLettersAndDropsTheDisk() throws Exception {
+        int scale = PreprocessConfig.BINARY_THIRD.downscale;
+        for (String word : RingFrames.WORDS) {
+            LumaFrame out = preprocessor.apply(RingFrames.load(word), PreprocessConfig.BINARY_THIRD, new LumaFrame(1, 1));
+            int n = word.length();
+            for (int i = 0; i < n; i++) {
+                int x = Math.round(RingFrames.letterX(i, n, scale)), y = Math.round(RingFrames.letterY(i, n, scale));
+                assertTrue(word + " letter " + i, black(out, x, y, 5) > 0);
+            }
+            // Halfway between neighbouring letters is bare disk
+            for (int i = 0; i < n; i++) {
+                int x = Math.round(RingFrames.letterX(i + 0.5f, n, scale)), y = Math.round(RingFrames.letterY(i + 0.5f, n, scale));
+                assertEquals(word + " gap " + i, 0, black(out, x, y, 2));
+            }
+        }
+    }
+
+    @Test
+    public void centerIconIsMasked() throws Exception {
+        PreprocessConfig config = PreprocessConfig.BINARY_THIRD;
+        for (String word : RingFrames.WORDS) {
+            LumaFrame out = preprocessor.apply(RingFrames.load(word), config, new LumaFrame(1, 1));
+            LumaFrame unmasked = preprocessor.apply(RingFrames.load(word),
+                    new PreprocessConfig("unmasked", config.downscale, config.thresholdRadius, config.thresholdOffset, 0f),
+                    new LumaFrame(1, 1));
+            int c = out.width / 2;
+            assertTrue(word + " icon visible without the mask", black(unmasked, c, c, 10) > 0);
+            assertEquals(word, 0, black(out, c, c, 10));
+        }
+    }
+
+    @Test
+    public void greyPresetsOnlyDownscale() throws Exception {
+        LumaFrame ring = RingFrames.load("PLATE");
+        LumaFrame out = preprocessor.apply(ring, PreprocessConfig.HALF, new LumaFrame(1, 1));
+        assertEquals(RingFrames.SIZE / 2, out.width);
+        for (int y = 0; y < out.height; y += 7) {
+            for (int x = 0; x < out.width; x += 7) {
+                int sum = ring.get(2 * x, 2 * y) + ring.get(2 * x + 1, 2 * y)
+                        + ring.get(2 * x, 2 * y + 1) + ring.get(2 * x + 1, 2 * y + 1);
+                assertEquals(sum / 4, out.get(x, y));
+            }
+        }
+        LumaFrame same = preprocessor.apply(ring, PreprocessConfig.NONE, new LumaFrame(1, 1));
+        for (int i = 0; i < ring.width * ring.height; i++) assertEquals(ring.pixels[i], same.pixels[i]);
+    }
+
+    @Test
+    public void thresholdLeavesSmoothShadingWhite() {
+        LumaFrame frame = new LumaFrame(40, 40);
+        for (int y = 0; y < 40; y++) {
+            for (int x = 0; x < 40; x++) frame.pixels[y * 40 + x] = (byte) (100 + 2 * x + y);
+        }
+        preprocessor.threshold(frame, 4, 10);
+        assertEquals(0, black(frame, 20, 20, 20));
+    }
+
+    @Test
+    public void thresholdMarksPixelsDarkerThanTheLocalMeanByTheOffset() {
+        LumaFrame frame = filled(30, 30, 200);
+        fill(frame, 5, 5, 3, 150);    // well below the mean
+        fill(frame, 20, 20, 3, 194);  // within the offset
+        preprocessor.threshold(frame, 4, 10);
+        assertEquals(9, black(frame, 6, 6, 3));
+        assertEquals(0, black(frame, 21, 21, 3));
+        assertEquals(9, black(frame, 15, 15, 15));
+    }
+
+    @Test
+    public void maskCenterBlanksADiskOfTheGivenFraction() {
+        LumaFrame frame = filled(41, 41, 0);
+        Preprocessor.maskCenter(frame, 0.5f); // radius 10.25 around (20, 20)
+        assertEquals(255, frame.get(20, 20));
+        assertEquals(255, frame.get(30, 20));
+        assertEquals(255, frame.get(20, 10));
+        assertEquals(0, frame.get(31, 20));
+        assertEquals(0, frame.get(28, 28)); // inside the box, outside the disk
+        assertEquals(0, frame.get(0, 0));
+    }
+
+    private static LumaFrame filled(int w, int h, int value) {
+        LumaFrame frame = new LumaFrame(w, h);
+        Arrays.fill(frame.pixels, 0, w * h, (byte) value);
+        return frame;
+    }
+
+    private static void fill(LumaFrame frame, int x0, int y0, int size, int value) {
+        for (int y = y0; y < y0 + size; y++) {
+            for (int x = x0; x < x0 + size; x++) frame.pixels[y * frame.width + x] = (byte) value;
+        }
+    }
+
+    // Black pixels in the square of the given half-size around (cx, cy)
+    static int black(LumaFrame frame, int cx, int cy, int radius) {
+        int count = 0;
+        for (int y = Math.max(0, cy - radius); y <= Math.min(frame.height - 1, cy + radius); y++) {
+            for (int x = Math.max(0, cx - radius); x <= Math.min(frame.width - 1, cx + radius); x++) {
+                if (frame.get(x, y) == 0) count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,39 @@
+package com.wordscapes.vision;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+
+/**
+ * Checked-in ring crops under /rings: ring_&lt;word&gt;.pgm is a 360x360 wheel whose letters,
+ * clockwise from the top, spell the word, with a shuffle icon in the middle. Rendered in
+ * DejaVu Sans Bold on a lightly noised disk over a gradient background.
+ */
+final class RingFrames {
+    static final String[] WORDS = { "PLANET", "PLATE", "TAN" };
+    static final int SIZE = 360;
+    static final float LETTER_RADIUS = 105f;
+
+    private RingFrames() {}
+
+    static LumaFrame load(String word) throws IOException {
+        try {
+            return Pgm.read(new File(RingFrames.class.getResource("/rings/ring_" + word.toLowerCase() + ".pgm").toURI()));
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /** Center of slot i of an n-letter wheel (fractions fall between letters), in pixels of the crop downscaled by scale. */
+    static float letterX(float slot, int n, int scale) {
+        return (SIZE / 2f + LETTER_RADIUS * (float) Math.cos(angle(slot, n))) / scale;
+    }
+
+    static float letterY(float slot, int n, int scale) {
+        return (SIZE / 2f + LETTER_RADIUS * (float) Math.sin(angle(slot, n))) / scale;
+    }
+
+    private static double angle(float slot, int n) {
+        return Math.toRadians(-90 + 360.0 * slot / n);
+    }
+}
@@ -0,0 +1,92 @@
+package com.wordscapes.vision;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class WheelReadingTest {
+    private static final PreprocessConfig CONFIG = PreprocessConfig.BINARY_THIRD;
+    private static final float MIN_SCORE = 0.8f, MIN_MARGIN = 0.1f;
+
+    private final Preprocessor preprocessor = new Preprocessor();
+    private final GlyphClassifier classifier = new GlyphClassifier();
+
+    @Test
+    public void relocatesTheSameGlyphs() throws Exception {
+        RingGlyphs ring = segment("PLATE");
+        WheelReading reading = readingOf(letters("PLATE", ring), ring, null);
+        WheelReading moved = reading.relocate(ring, MIN_SCORE, MIN_MARGIN, null);
+        assertNotNull(moved);
+        for (int slot = 0; slot < ring.size(); slot++) assertEquals(reading.letter(slot), moved.letter(slot));
+    }
+
+    @Test
+    public void rejectsAMatchWithoutAMarginOverAnotherLetter() throws Exception {
+        RingGlyphs ring = segment("PLATE");
+        String letters = letters("PLATE", ring);
+        // A look-alike: the known L is drawn exactly like the P
+        float[][] glyphs = glyphsOf(ring);
+        glyphs[letters.indexOf('L')] = glyphs[letters.indexOf('P')];
+        WheelReading reading = readingOf(letters, ring, glyphs);
+        // Any score passes, so only the tie between P and its look-alike rejects
+        assertNull(reading.relocate(ring, 0f, MIN_MARGIN, null));
+    }
+
+    @Test
+    public void rejectsAMatchTheClassifierReadsAsAConfirmedOtherLetter() throws Exception {
+        RingGlyphs ring = segment("PLATE");
+        String letters = letters("PLATE", ring);
+        for (int i = 0; i < ring.size(); i++) classifier.learn(letters.charAt(i), ring.features(i));
+        // The old wheel had an F where this one has an E
+        WheelReading reading = readingOf(letters.replace('E', 'F'), ring, null);
+        assertNotNull(reading.relocate(ring, MIN_SCORE, MIN_MARGIN, null));
+        assertNull(reading.relocate(ring, MIN_SCORE, MIN_MARGIN, classifier));
+
+        // Seeds are not confirmed, so they cannot veto
+        GlyphClassifier seeded = new GlyphClassifier();
+        for (int i = 0; i < ring.size(); i++) seeded.seed(letters.charAt(i), ring.features(i));
+        assertNotNull(reading.relocate(ring, MIN_SCORE, MIN_MARGIN, seeded));
+    }
+
+    @Test
+    public void rejectsARingWithADifferentBlobCount() throws Exception {
+        RingGlyphs plate = segment("PLATE");
+        WheelReading reading = readingOf(letters("PLATE", plate), plate, null);
+        assertNull(reading.relocate(segment("PLANET"), MIN_SCORE, MIN_MARGIN, null));
+    }
+
+    private RingGlyphs segment(String word) throws Exception {
+        LumaFrame binary = preprocessor.apply(RingFrames.load(word), CONFIG, new LumaFrame(1, 1));
+        return classifier.segment(binary, 0, 0, CONFIG.downscale);
+    }
+
+    // Slots in blob order; glyphs defaults to the ring's own
+    private static WheelReading readingOf(String letters, RingGlyphs ring, float[][] glyphs) {
+        int[] boxes = new int[4 * ring.size()];
+        for (int i = 0; i < ring.size(); i++) {
+            boxes[4 * i] = ring.left(i);
+            boxes[4 * i + 1] = ring.top(i);
+            boxes[4 * i + 2] = ring.right(i);
+            boxes[4 * i + 3] = ring.bottom(i);
+        }
+        return new WheelReading(letters.toCharArray(), boxes, glyphs != null ? glyphs : glyphsOf(ring));
+    }
+
+    private static float[][] glyphsOf(RingGlyphs ring) {
+        float[][] glyphs = new float[ring.size()][];
+        for (int i = 0; i < ring.size(); i++) glyphs[i] = ring.features(i);
+        return glyphs;
+    }
+
+    // The word's letters in the ring's blob order, matched by position
+    private static String letters(String word, RingGlyphs ring) {
+        char[] out = new char[ring.size()];
+        for (int i = 0; i < word.length(); i++) {
+            int blob = ring.indexAt(RingFrames.letterX(i, word.length(), 1), RingFrames.letterY(i, word.length(), 1));
+            out[blob] = word.charAt(i);
+        }
+        return new String(out);
+    }
+}